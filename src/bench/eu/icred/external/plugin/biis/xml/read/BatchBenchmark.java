@@ -0,0 +1,75 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eu.icred.model.node.Container;
+import eu.icred.plugin.worker.input.ImportWorkerConfiguration;
+
+/**
+ * batch throughput in files per second over a directory of generated files
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BatchBenchmark {
+    static final int FILES = 2000;
+
+    /**
+     * worker threads, 0 = one per processor
+     */
+    @Param({ "1", "0" })
+    int threads;
+
+    @Param({ "0.0", "0.9" })
+    double nilRatio;
+
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("biis-batch");
+        new CorpusGenerator(Paths.get(CorpusGenerator.DEFAULT_TEMPLATE), 1).setNilRatio(nilRatio).writeFiles(directory, FILES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILES)
+    public Container batch() {
+        BatchReader reader = threads == 0 ? new BatchReader() : new BatchReader(threads);
+        reader.addDirectory(directory, "*.xml");
+        reader.load((ImportWorkerConfiguration) null);
+        return reader.getContainer();
+    }
+}
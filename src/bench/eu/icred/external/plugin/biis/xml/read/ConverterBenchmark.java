@@ -0,0 +1,86 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * cost of the value conversions (BiisConverter tables, TextDecoder), cycling
+ * through typical codes; the text is set from a String like in the cache
+ * replay, which adds a copy compared to reading from xml
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ConverterBenchmark {
+    private static final String[] USE_TYPES = { "Buero", "Handel", "Industrie(Lager,Hallen)", "Keller/Archiv",
+            "Gastronomie", "Hotel", "Wohnen", "Freizeit", "Garage/TG", "Aussenstellplaetze", "unbekannt", "xyz" };
+    private static final String[] VALUATION_TYPES1 = { "Fondsgutachten", "Privatgutachten", "Gerichtsgutachten",
+            "Fremdgutachten" };
+    private static final String[] CONSTRUCTION_PHASES = { "F", "I", "P", "0" };
+    private static final String[] BOOLEANS = { "true", "false", "TRUE", "False" };
+    private static final String[] DOUBLES = { "52.427927", "73.5", "12500000", "1583578.55" };
+    private static final String[] DATES = { "2012-12-21", "2011-02-19", "2012-06-06", "2011-12-12" };
+
+    private static final String[] CURRENCIES = { "EUR", "EUR", "EUR", "CHF" };
+
+    private final TextDecoder text = new TextDecoder();
+    private int i = 0;
+
+    private TextDecoder next(String[] values) {
+        text.set(values[(i++ & 0x7fffffff) % values.length]);
+        return text;
+    }
+
+    @Benchmark
+    public Object useType() {
+        return next(USE_TYPES).lookup(BiisConverter.BIIS2GIF_USE_TYPE);
+    }
+
+    @Benchmark
+    public Object valuationType1() {
+        return next(VALUATION_TYPES1).lookup(BiisConverter.BIIS2GIF_VALUATION_TYPE1);
+    }
+
+    @Benchmark
+    public Object constructionPhase() {
+        return next(CONSTRUCTION_PHASES).lookup(BiisConverter.BIIS2GIF_CONSTRUCTION_PHASE);
+    }
+
+    @Benchmark
+    public Object booleanValue() {
+        return next(BOOLEANS).toBoolean();
+    }
+
+    @Benchmark
+    public Object doubleValue() {
+        return next(DOUBLES).toDouble();
+    }
+
+    @Benchmark
+    public Object date() {
+        return next(DATES).toLocalDate();
+    }
+
+    @Benchmark
+    public Object currency() {
+        return next(CURRENCIES).toCurrency();
+    }
+
+    @Benchmark
+    public Object dateBaseline() {
+        return LocalDate.parse(DATES[(i++ & 0x7fffffff) % DATES.length]);
+    }
+}
@@ -0,0 +1,248 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * deterministic generator of ValXML corpora for the benchmarks
+ *
+ * <p>
+ * Scales testfiles/biis-example.xml: the header is kept, the
+ * BIISValuationData block is repeated with a distinct ObjNoOwner and random
+ * (seeded) values for all numeric elements, including the whole
+ * RentalSituation* family. The nil ratio controls the share of numeric and
+ * free text elements written as <code>xsi:nil="true"</code>; 0 fills every
+ * element, 0.9 gives a nil-heavy corpus like most real files.
+ * </p>
+ *
+ * <pre>
+ * CorpusGenerator &lt;objects&gt; &lt;target&gt; [--files] [--nil-ratio r] [--seed s] [--template file]
+ * </pre>
+ *
+ * Without <code>--files</code> one ValXML holding all objects is written to
+ * <code>target</code>; with it <code>target</code> is a directory receiving
+ * one file per object.
+ */
+public class CorpusGenerator {
+    public static final String DEFAULT_TEMPLATE = "testfiles/biis-example.xml";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final Pattern LEAF = Pattern.compile("<ns1:(\\w+)( xsi:nil=\"true\")?>([^<]*)</ns1:\\1>");
+
+    private static final Set<String> NUMERIC = new HashSet<String>(Arrays.asList("CapitalizationRate", "CostApproach",
+            "DeductionConstructionWorks", "DeductionForVacancy", "DiscountsPremiums", "ExchangeRate1EUR",
+            "GrossFloorSpaceBelowGround", "GrossFloorSpaceOverground", "GroundRent", "LandSize", "LandValue",
+            "MaintenanceExpenses", "ManagementCosts", "MarketValue", "OtherOperatingExpenses", "OthersDiscountsPremiums",
+            "PriceOfSale", "PurchasePrice", "RemainingEconomicLife", "RemainingLifeOfGroundLease", "RentAllowance",
+            "RunningCosts", "SiteCoverageRatio", "TotalGrossFloorSpace", "TotalRentableArea", "ValueByIncomeApproach",
+            "ValueByIncomeApproachWithoutPremiumsDiscounts", "FloorToAreaRatio", "CalculatedYearOfConstruction",
+            "NormalTotalEconomicLife", "ShareMainTypeOfUse", "ShareAncillaryTypeOfUse"));
+
+    private static final Set<String> FREE_TEXT = new HashSet<String>(Arrays.asList("RebaseObjAdditionalInformation",
+            "GroundLeaseRemarks"));
+
+    private final String header;
+    private final String footer;
+    // block split into literal text and leaf elements
+    private final List<String> literals = new ArrayList<String>();
+    private final List<String> leaves = new ArrayList<String>();
+    private final List<String> templateValues = new ArrayList<String>();
+
+    private final long seed;
+    private double nilRatio = 0;
+
+    /**
+     * @param template
+     *            ValXML with one BIISValuationData element
+     * @param seed
+     *            seed of the value generator
+     */
+    public CorpusGenerator(Path template, long seed) throws IOException {
+        this.seed = seed;
+
+        String xml = new String(Files.readAllBytes(template), UTF8);
+        int start = xml.indexOf("<ns1:BIISValuationData>");
+        int end = xml.indexOf("</ns1:BIISValuationData>") + "</ns1:BIISValuationData>".length();
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("no BIISValuationData in " + template);
+        }
+        header = xml.substring(0, start);
+        footer = xml.substring(end);
+
+        String block = xml.substring(start, end);
+        Matcher m = LEAF.matcher(block);
+        int pos = 0;
+        while (m.find()) {
+            literals.add(block.substring(pos, m.start()));
+            leaves.add(m.group(1));
+            templateValues.add(m.group(2) == null ? m.group(3) : null);
+            pos = m.end();
+        }
+        literals.add(block.substring(pos));
+    }
+
+    /**
+     * @param nilRatio
+     *            share (0..1) of numeric and free text elements written as nil
+     * @return this
+     */
+    public CorpusGenerator setNilRatio(double nilRatio) {
+        if (nilRatio < 0 || nilRatio > 1) {
+            throw new IllegalArgumentException("nil ratio must be within 0..1: " + nilRatio);
+        }
+        this.nilRatio = nilRatio;
+        return this;
+    }
+
+    /**
+     * writes one ValXML holding all objects
+     *
+     * @param out
+     *            target, not closed
+     * @param objects
+     *            number of BIISValuationData elements
+     */
+    public void writeArchive(OutputStream out, int objects) throws IOException {
+        Random random = new Random(seed);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF8), 1 << 16);
+        writer.write(header);
+        for (int i = 0; i < objects; i++) {
+            if (i > 0) {
+                writer.write("\n    ");
+            }
+            writeObject(writer, random, i);
+        }
+        writer.write(footer);
+        writer.flush();
+    }
+
+    /**
+     * writes one ValXML per object into a directory
+     *
+     * @param directory
+     *            target directory, created if missing
+     * @param files
+     *            number of files
+     */
+    public void writeFiles(Path directory, int files) throws IOException {
+        Files.createDirectories(directory);
+        Random random = new Random(seed);
+        for (int i = 0; i < files; i++) {
+            Writer writer = Files.newBufferedWriter(directory.resolve(String.format("valxml-%07d.xml", i)), UTF8);
+            try {
+                writer.write(header);
+                writeObject(writer, random, i);
+                writer.write(footer);
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    private void writeObject(Writer writer, Random random, int index) throws IOException {
+        for (int i = 0; i < leaves.size(); i++) {
+            writer.write(literals.get(i));
+
+            String name = leaves.get(i);
+            String value = value(name, templateValues.get(i), random, index);
+            writer.write("<ns1:");
+            writer.write(name);
+            if (value == null) {
+                writer.write(" xsi:nil=\"true\"></ns1:");
+            } else {
+                writer.write('>');
+                writer.write(value);
+                writer.write("</ns1:");
+            }
+            writer.write(name);
+            writer.write('>');
+        }
+        writer.write(literals.get(leaves.size()));
+    }
+
+    private String value(String name, String templateValue, Random random, int index) {
+        if (name.equals("ObjNoOwner")) {
+            return String.valueOf(index + 1);
+        }
+        if (name.equals("Text")) {
+            return "Objekt " + (index + 1);
+        }
+
+        boolean numeric = NUMERIC.contains(name) || name.startsWith("RentalSituation");
+        if (!numeric && !FREE_TEXT.contains(name)) {
+            return templateValue;
+        }
+
+        // draw both values in any case to keep the sequence independent of
+        // the nil ratio
+        boolean nil = random.nextDouble() < nilRatio;
+        long number = random.nextInt(100000000);
+        if (nil) {
+            return null;
+        }
+        if (!numeric) {
+            return "Bemerkung " + number;
+        }
+        if (name.endsWith("Numbers") || name.endsWith("YearOfConstruction") || name.endsWith("EconomicLife")) {
+            return String.valueOf(number % 1000);
+        }
+        if (name.startsWith("Share") || name.endsWith("Ratio") || name.equals("CapitalizationRate")) {
+            return String.valueOf((number % 10000) / 100.0);
+        }
+        return (number / 100) + "." + String.format("%02d", number % 100);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CorpusGenerator <objects> <target> [--files] [--nil-ratio r] [--seed s] [--template file]");
+            System.exit(1);
+        }
+
+        int objects = Integer.parseInt(args[0]);
+        Path target = Paths.get(args[1]);
+        boolean files = false;
+        double nilRatio = 0;
+        long seed = 1;
+        Path template = Paths.get(DEFAULT_TEMPLATE);
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--files")) {
+                files = true;
+            } else if (args[i].equals("--nil-ratio")) {
+                nilRatio = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--template")) {
+                template = Paths.get(args[++i]);
+            } else {
+                throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        CorpusGenerator generator = new CorpusGenerator(template, seed).setNilRatio(nilRatio);
+        if (files) {
+            generator.writeFiles(target, objects);
+        } else {
+            OutputStream out = Files.newOutputStream(target);
+            try {
+                generator.writeArchive(out, objects);
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+
+/**
+ * parse latency of one ValXML stream; run with <code>-prof gc</code> for the
+ * allocation rate (gc.alloc.rate.norm divided by {@link #elements} gives bytes
+ * per element)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ReaderBenchmark {
+    @Param({ "1", "100", "10000" })
+    int objects;
+
+    @Param({ "0.0", "0.9" })
+    double nilRatio;
+
+    byte[] content;
+    int elements;
+
+    private ValXmlParser parser;
+
+    @Setup
+    public void setup() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CorpusGenerator(Paths.get(CorpusGenerator.DEFAULT_TEMPLATE), 1).setNilRatio(nilRatio).writeArchive(out, objects);
+        content = out.toByteArray();
+        elements = countElements(content);
+        parser = new ValXmlParser();
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) throws Exception {
+        parser.parse(new ByteArrayInputStream(content), new Meta(), new ValuationListener() {
+            @Override
+            public void valuationParsed(Property prop, Valuation val) {
+                blackhole.consume(val);
+            }
+        });
+    }
+
+    static int countElements(byte[] xml) {
+        int count = 0;
+        for (int i = 0; i < xml.length - 1; i++) {
+            if (xml[i] == '<' && xml[i + 1] != '/' && xml[i + 1] != '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
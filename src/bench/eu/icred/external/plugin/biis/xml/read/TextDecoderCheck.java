@@ -0,0 +1,200 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+
+import eu.icred.model.datatype.enumeration.UseType;
+
+/**
+ * checks the fast paths of {@link TextDecoder} against the library parsers
+ * they replace ({@link Double#parseDouble(String)}, {@link LocalDate#parse(String)},
+ * {@link LocalDateTime#parse(String)}), plus code lookup and nil handling
+ *
+ * <p>
+ * A value must give the same result as the library, or both must fail.
+ * Prints the mismatches and exits with 1 if there are any:
+ * </p>
+ *
+ * <pre>
+ * java -cp "bin:bin-bench:libs/*" eu.icred.external.plugin.biis.xml.read.TextDecoderCheck
+ * </pre>
+ */
+public class TextDecoderCheck {
+    private static final String[] DOUBLES = { "0", "-0", "+0", "-0.0", "1", "-1", "+1", "73.5", "52.427927",
+            "1583578.55", "12500000", ".5", "-.5", "5.", "-5.", "1e3", "1E-3", "1.5e2", "123456789012345",
+            "1234567890123456", "12345678901234567", "0.123456789012345", "0.1234567890123456",
+            "999999999999999", "9007199254740993", "0.0000000000000000000001", "0.00000000000000000000001",
+            "1.7976931348623157", " 73.5 ", "\t73.5\n", "", " ", "-", "+", ".", "-.", "1.2.3", "1,5", "1 5", "NaN",
+            "Infinity", "-Infinity", "0x10", "abc", "1d", "1f" };
+
+    private static final String[] DATES = { "2012-12-21", "2011-02-19", "2012-02-29", "2011-02-29", "2012-02-30",
+            "2012-13-01", "2012-00-10", "2012-12-00", "2012-12-32", "0000-01-01", "2012", "0000", "9999", "2012-06",
+            "2012-13", "2012-00", "201", "20121", "-123", "+123", "-2012", "2012-1-01", "2012-01-1", "2012/01/01",
+            "2012-01-01T10:00", "20a2", "2012-0a", "2012-01-0a", " 2012-12-21 ", "2012-W01-1", "2012-001", "" };
+
+    private static final String[] DATE_TIMES = { "2012-12-21T10:11:12", "2012-12-21T10:11:12.123",
+            "2012-12-21T10:11:12.5", "2012-12-21T10:11:12.12", "2012-12-21T10:11:12.1234", "2012-12-21T00:00:00",
+            "2012-12-21T23:59:59.999", "2012-12-21T24:00:00", "2012-12-21T10:60:00", "2012-12-21T10:11:60",
+            "2012-02-30T10:11:12", "2012-12-21T10:11", "2012-12-21T10", "2012-12-21", "2012-12-21 10:11:12",
+            "2012-12-21T1a:11:12", "2012-12-21T10:11:12.1a3", "2012-12-21T10:11:12,123", "-012-12-21T10:11:12",
+            " 2012-12-21T10:11:12 ", "2012-12-21T10:11:12Z", "" };
+
+    private static int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        TextDecoder text = new TextDecoder();
+
+        for (String value : DOUBLES) {
+            text.set(value);
+            check("toDouble", value, decodeDouble(text), parseDouble(value));
+        }
+
+        // twice, the second round is served from the date cache
+        for (int round = 0; round < 2; round++) {
+            for (String value : DATES) {
+                text.set(value);
+                check("toLocalDate", value, decodeDate(text), parseDate(value));
+            }
+        }
+
+        for (String value : DATE_TIMES) {
+            text.set(value);
+            check("toLocalDateTime", value, decodeDateTime(text), parseDateTime(value));
+        }
+
+        checkCodes(text);
+        checkNil();
+
+        if (failures > 0) {
+            System.out.println(failures + " mismatches");
+            System.exit(1);
+        }
+        System.out.println("ok");
+    }
+
+    private static void checkCodes(TextDecoder text) {
+        CodeTable<UseType> table = new CodeTable<UseType>(UseType.NOT_SPECIFIED);
+        // many codes, so the table is rehashed
+        for (int i = 0; i < 100; i++) {
+            table.put("code" + i, i % 2 == 0 ? UseType.OFFICE : UseType.RETAIL);
+        }
+        table.put("", UseType.RESIDENTIAL);
+        for (int i = 0; i < 100; i++) {
+            text.set(" code" + i + "\n");
+            check("lookup", "code" + i, text.lookup(table), i % 2 == 0 ? UseType.OFFICE : UseType.RETAIL);
+        }
+        text.set("code100");
+        check("lookup", "code100", text.lookup(table), UseType.NOT_SPECIFIED);
+        text.set("CODE1");
+        check("lookup", "CODE1", text.lookup(table), UseType.NOT_SPECIFIED);
+        text.set("  ");
+        check("lookup", "  ", text.lookup(table), UseType.RESIDENTIAL);
+
+        try {
+            table.put("code1", UseType.OFFICE);
+            fail("put", "code1", "no error for a duplicate code");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        text.set("Buero");
+        check("lookup", "Buero", text.lookup(BiisConverter.BIIS2GIF_USE_TYPE),
+                BiisConverter.BIIS2GIF_USE_TYPE.get("Buero"));
+        check("reverse", "OFFICE", BiisConverter.GIF2BIIS_USE_TYPE.get(UseType.OFFICE), "Buero");
+    }
+
+    private static void checkNil() throws Exception {
+        String xsi = " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"";
+        checkRead("<a" + xsi + " xsi:nil=\"true\"/>", null);
+        checkRead("<a" + xsi + " xsi:nil=\"1\">ignored</a>", null);
+        checkRead("<a" + xsi + " xsi:nil=\"false\">73.5</a>", "73.5");
+        checkRead("<a" + xsi + " xsi:nil=\"0\"></a>", "");
+        // nil of another namespace is content
+        checkRead("<a xmlns:x=\"urn:x\" x:nil=\"true\">text</a>", "text");
+        checkRead("<a>a&amp;b<!-- comment --><![CDATA[<c>]]></a>", "a&b<c>");
+        checkRead("<a/>", "");
+    }
+
+    private static void checkRead(String xml, String expected) throws Exception {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+        while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+        }
+        TextDecoder text = new TextDecoder();
+        String actual = text.read(reader) ? text.string() : null;
+        check("read", xml, actual, expected);
+    }
+
+    private static Object decodeDouble(TextDecoder text) {
+        try {
+            return text.toDouble();
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static Object parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static Object decodeDate(TextDecoder text) {
+        try {
+            return text.toLocalDate();
+        } catch (IllegalArgumentException e) {
+            return IllegalArgumentException.class;
+        }
+    }
+
+    private static Object parseDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (IllegalArgumentException e) {
+            return IllegalArgumentException.class;
+        }
+    }
+
+    private static Object decodeDateTime(TextDecoder text) {
+        try {
+            return text.toLocalDateTime();
+        } catch (IllegalArgumentException e) {
+            return IllegalArgumentException.class;
+        }
+    }
+
+    private static Object parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (IllegalArgumentException e) {
+            return IllegalArgumentException.class;
+        }
+    }
+
+    /**
+     * doubles are compared bitwise, so -0.0 and 0.0 differ
+     */
+    private static void check(String method, String value, Object actual, Object expected) {
+        boolean same;
+        if (actual instanceof Double && expected instanceof Double) {
+            same = Double.doubleToRawLongBits((Double) actual) == Double.doubleToRawLongBits((Double) expected);
+        } else {
+            same = actual == null ? expected == null : actual.equals(expected);
+        }
+        if (!same) {
+            fail(method, value, actual + " instead of " + expected);
+        }
+    }
+
+    private static void fail(String method, String value, String message) {
+        failures++;
+        System.out.println(method + "(\"" + value + "\"): " + message);
+    }
+}
@@ -1,6 +1,8 @@
 package eu.icred.external.plugin.biis.xml;
 
+import eu.icred.external.plugin.biis.xml.read.BatchReader;
 import eu.icred.external.plugin.biis.xml.read.Reader;
+import eu.icred.external.plugin.biis.xml.write.Writer;
 import eu.icred.plugin.IPlugin;
 import eu.icred.plugin.worker.input.IImportWorker;
 import eu.icred.plugin.worker.output.IExportWorker;
@@ -43,9 +45,16 @@ public class Plugin implements IPlugin {
         return new Reader();
     }
 
+    /**
+     * @return import worker for many files at once (directory, ZIP)
+     */
+    public BatchReader getBatchImportPlugin() {
+        return new BatchReader();
+    }
+
     @Override
     public IExportWorker getExportPlugin() {
-        return null;
+        return new Writer();
     }
 
 }
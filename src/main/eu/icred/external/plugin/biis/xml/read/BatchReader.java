@@ -0,0 +1,477 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+import org.apache.log4j.Logger;
+
+import eu.icred.model.datatype.enumeration.Subset;
+import eu.icred.model.node.Container;
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+import eu.icred.plugin.PluginComponent;
+import eu.icred.plugin.worker.WorkerConfiguration;
+import eu.icred.plugin.worker.input.IImportWorker;
+import eu.icred.plugin.worker.input.ImportWorkerConfiguration;
+
+/**
+ * imports many ValXML files into one container
+ *
+ * <p>
+ * Sources are all streams of the configuration (a stream whose name ends with
+ * ".zip" is read as ZIP of ValXML files) plus the directories and ZIP files
+ * added via {@link #addDirectory(Path, String)} and {@link #addZip(Path)}. The
+ * files are parsed by a fixed pool of worker threads; results are merged into
+ * the container by the calling thread. A file or source (directory, ZIP) that
+ * fails is logged and reported by {@link #getFailures()}, the batch goes on.
+ * The options of a {@link BiisImportConfiguration} apply to every file. The
+ * creation date of the container meta data (CompletionDate) is the one of the
+ * first file, in the order of the sources, that has one.
+ * </p>
+ * <p>
+ * {@link #unload()} from another thread cancels a running load: no more files
+ * are submitted, and <code>load</code> returns without the files not merged
+ * yet.
+ * </p>
+ */
+public class BatchReader implements IImportWorker {
+    private static Logger logger = Logger.getLogger(BatchReader.class);
+
+    private final int threads;
+    private final List<Path> directories = new ArrayList<Path>();
+    private final List<String> globs = new ArrayList<String>();
+    private final List<Path> zips = new ArrayList<Path>();
+
+    private Container container = null;
+    private Map<String, Exception> failures = new LinkedHashMap<String, Exception>();
+    private List<ParseError> errors = new ArrayList<ParseError>();
+
+    private ExecutorService executor = null;
+    // set by unload, checked by load and the tasks
+    private volatile boolean cancelled = false;
+    // parser per worker thread
+    private ThreadLocal<ValXmlParser> parsers = null;
+    private ParseCache cache = null;
+    private CompletionService<Result> completion = null;
+    // tasks not merged yet; merged in submission order, so the container
+    // (and the suffixes of clashing valuation keys) does not depend on timing
+    private int pending = 0;
+    private int submitted = 0;
+    private int merged = 0;
+    private Map<Integer, Result> completed = new HashMap<Integer, Result>();
+
+    /**
+     * one worker thread per available processor
+     */
+    public BatchReader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads
+     *            number of worker threads
+     */
+    public BatchReader(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * adds all files of a directory (not recursive)
+     *
+     * @param directory
+     *            directory of ValXML files
+     * @param glob
+     *            file name filter, e.g. "*.xml"; <code>null</code> for all
+     *            files
+     */
+    public void addDirectory(Path directory, String glob) {
+        directories.add(directory);
+        globs.add(glob == null ? "*" : glob);
+    }
+
+    /**
+     * adds all entries of a ZIP file
+     *
+     * @param zip
+     *            ZIP of ValXML files
+     */
+    public void addZip(Path zip) {
+        zips.add(zip);
+    }
+
+    /**
+     * @return files that could not be imported by source name, in order of
+     *         occurrence
+     */
+    public Map<String, Exception> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return problems of all files, see {@link Reader#getErrors()}; the
+     *         source is the name used by {@link #getFailures()}
+     */
+    public List<ParseError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    @Override
+    public List<Subset> getSupportedSubsets() {
+        return Arrays.asList(Reader.SUPPORTED_SUBSETS);
+    }
+
+    @Override
+    public void load(WorkerConfiguration config) {
+        throw new RuntimeException("not allowed");
+    }
+
+    @Override
+    public void load(ImportWorkerConfiguration config) {
+        container = new Container();
+        Reader.initMeta(container.getMeta());
+        failures = new LinkedHashMap<String, Exception>();
+        errors = new ArrayList<ParseError>();
+        cancelled = false;
+
+        final ImportWorkerConfiguration parserConfig = config;
+        parsers = new ThreadLocal<ValXmlParser>() {
+            @Override
+            protected ValXmlParser initialValue() {
+                return BiisImportConfiguration.createParser(parserConfig);
+            }
+        };
+
+        cache = BiisImportConfiguration.getCache(config);
+
+        executor = Executors.newFixedThreadPool(threads);
+        completion = new ExecutorCompletionService<Result>(executor);
+        pending = 0;
+        submitted = 0;
+        merged = 0;
+        completed = new HashMap<Integer, Result>();
+
+        try {
+            if (config != null) {
+                for (Map.Entry<String, InputStream> entry : config.getStreams().entrySet()) {
+                    if (cancelled) {
+                        break;
+                    }
+                    if (entry.getValue() == null) {
+                        continue;
+                    }
+                    if (entry.getKey().toLowerCase().endsWith(".zip")) {
+                        submitZip(entry.getKey(), entry.getValue());
+                    } else {
+                        byte[] content;
+                        try {
+                            content = ParseCache.readFully(entry.getValue());
+                        } catch (IOException e) {
+                            fail(entry.getKey(), e);
+                            continue;
+                        }
+                        submit(entry.getKey(), content);
+                    }
+                }
+            }
+
+            for (int i = 0; i < directories.size() && !cancelled; i++) {
+                submitDirectory(directories.get(i), globs.get(i));
+            }
+
+            for (Path zip : zips) {
+                if (cancelled) {
+                    break;
+                }
+                InputStream in;
+                try {
+                    in = Files.newInputStream(zip);
+                } catch (IOException e) {
+                    fail(zip.toString(), e);
+                    continue;
+                }
+                try {
+                    submitZip(zip.toString(), in);
+                } finally {
+                    close(in);
+                }
+            }
+
+            // every submitted file is merged, whatever failed before
+            while (pending > 0 && !cancelled) {
+                merge();
+            }
+            if (cancelled) {
+                logger.info("batch import cancelled, " + (submitted - merged) + " files left out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("batch import interrupted", e);
+        } finally {
+            executor.shutdownNow();
+            executor = null;
+            completion = null;
+            parsers = null;
+            cache = null;
+        }
+    }
+
+    /**
+     * cancels a running load, see class comment; the pool is shut down by
+     * the loading thread
+     */
+    @Override
+    public void unload() {
+        cancelled = true;
+    }
+
+    /**
+     * submits the entries of a ZIP; a ZIP that can not be read is recorded
+     * as failure (under the entry name if it breaks within an entry), the
+     * entries before stay submitted; so is a ZIP without any entry, which
+     * is what ZipInputStream makes of data that is no ZIP at all
+     */
+    private void submitZip(String name, InputStream in) throws InterruptedException {
+        ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in));
+        String source = name;
+        boolean empty = true;
+        try {
+            ZipEntry entry;
+            while (!cancelled && (entry = zip.getNextEntry()) != null) {
+                empty = false;
+                if (!entry.isDirectory()) {
+                    source = name + "!" + entry.getName();
+                    byte[] content = ParseCache.readFully(zip);
+                    submit(source, content);
+                    source = name;
+                }
+            }
+            if (empty && !cancelled) {
+                throw new ZipException("no ZIP entries");
+            }
+        } catch (IOException e) {
+            // the rest of a broken ZIP can not be read reliably
+            fail(source, e);
+        }
+    }
+
+    private void submitDirectory(Path directory, String glob) throws InterruptedException {
+        DirectoryStream<Path> files;
+        try {
+            files = Files.newDirectoryStream(directory, glob);
+        } catch (IOException e) {
+            fail(directory.toString(), e);
+            return;
+        }
+        // sorted, the listing order depends on the file system
+        List<Path> sorted = new ArrayList<Path>();
+        try {
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    sorted.add(file);
+                }
+            }
+        } catch (DirectoryIteratorException e) {
+            // the files listed so far are imported
+            fail(directory.toString(), e.getCause());
+        } finally {
+            close(files);
+        }
+        Collections.sort(sorted);
+        for (Path file : sorted) {
+            submit(file);
+        }
+    }
+
+    /**
+     * records a source that could not be read
+     */
+    private void fail(String name, Exception e) {
+        logger.warn("could not import " + name, e);
+        failures.put(name, e);
+    }
+
+    private static void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.debug("could not close source", e);
+        }
+    }
+
+    private void submit(final String name, final byte[] content) throws InterruptedException {
+        submit(new Task(name) {
+            @Override
+            InputStream open() {
+                return new ByteArrayInputStream(content);
+            }
+        });
+    }
+
+    private void submit(final Path file) throws InterruptedException {
+        submit(new Task(file.toString()) {
+            @Override
+            InputStream open() throws IOException {
+                return new BufferedInputStream(Files.newInputStream(file));
+            }
+        });
+    }
+
+    /**
+     * submits a task; blocks (merging finished results) while too many tasks
+     * are in flight, which bounds the memory held by queued file contents
+     */
+    private void submit(Task task) throws InterruptedException {
+        // in flight tasks are not removed, so merge always gets a result
+        while (pending >= 2 * threads && !cancelled) {
+            merge();
+        }
+        if (cancelled) {
+            return;
+        }
+        task.sequence = submitted++;
+        completion.submit(task);
+        pending++;
+    }
+
+    /**
+     * waits for the next finished task and merges all results that are next
+     * in submission order
+     */
+    private void merge() throws InterruptedException {
+        try {
+            Result result = completion.take().get();
+            completed.put(result.sequence, result);
+        } catch (ExecutionException e) {
+            // tasks catch their own exceptions
+            throw new IllegalStateException(e.getCause());
+        }
+
+        Result result;
+        while ((result = completed.remove(merged)) != null) {
+            merged++;
+            pending--;
+            merge(result);
+        }
+    }
+
+    private void merge(Result result) {
+        for (ParseError error : result.errors) {
+            logger.warn(error);
+            errors.add(error);
+        }
+        if (result.error != null) {
+            fail(result.name, result.error);
+        } else {
+            Meta meta = container.getMeta();
+            if (meta.getCreated() == null) {
+                meta.setCreated(result.meta.getCreated());
+            }
+            for (int i = 0; i < result.props.size(); i++) {
+                Reader.addValuation(container.getMaindata(), result.props.get(i), result.vals.get(i));
+            }
+        }
+    }
+
+    private abstract class Task implements Callable<Result> {
+        private final String name;
+        int sequence;
+
+        Task(String name) {
+            this.name = name;
+        }
+
+        abstract InputStream open() throws IOException;
+
+        @Override
+        public Result call() {
+            final Result result = new Result(name, sequence);
+            if (cancelled) {
+                // not merged anyway
+                return result;
+            }
+            try {
+                InputStream in = open();
+                try {
+                    ValuationListener listener = new ValuationListener() {
+                        @Override
+                        public void valuationParsed(Property prop, Valuation val) {
+                            result.props.add(prop);
+                            result.vals.add(val);
+                        }
+                    };
+                    if (cache != null) {
+                        cache.parse(parsers.get(), in, name, result.meta, listener);
+                    } else {
+                        parsers.get().parse(in, name, result.meta, listener, null);
+                    }
+                } finally {
+                    in.close();
+                    result.errors.addAll(parsers.get().getErrors());
+                }
+            } catch (Exception e) {
+                result.error = e;
+            }
+            return result;
+        }
+    }
+
+    private static class Result {
+        final String name;
+        final int sequence;
+        final List<Property> props = new ArrayList<Property>();
+        final List<Valuation> vals = new ArrayList<Valuation>();
+        final List<ParseError> errors = new ArrayList<ParseError>();
+        // document level fields of the file
+        final Meta meta = new Meta();
+        Exception error = null;
+
+        Result(String name, int sequence) {
+            this.name = name;
+            this.sequence = sequence;
+        }
+    }
+
+    @Override
+    public ImportWorkerConfiguration getRequiredConfigurationArguments() {
+        // any number of streams - see class comment
+        return new BiisImportConfiguration();
+    }
+
+    @Override
+    public PluginComponent<ImportWorkerConfiguration> getConfigGui() {
+        // null => DefaultConfigGui
+        return null;
+    }
+
+    @Override
+    public Container getContainer() {
+        return container;
+    }
+}
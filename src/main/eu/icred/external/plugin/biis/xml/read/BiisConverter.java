@@ -0,0 +1,129 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+
+import eu.icred.model.datatype.enumeration.AreaMeasurement;
+import eu.icred.model.datatype.enumeration.ConstructionPhase;
+import eu.icred.model.datatype.enumeration.Country;
+import eu.icred.model.datatype.enumeration.InteriorQuality;
+import eu.icred.model.datatype.enumeration.ObjectCondition;
+import eu.icred.model.datatype.enumeration.OwnershipType;
+import eu.icred.model.datatype.enumeration.RetailLocationType;
+import eu.icred.model.datatype.enumeration.UseType;
+import eu.icred.model.datatype.enumeration.ValuationType1;
+import eu.icred.model.datatype.enumeration.ValuationType2;
+import eu.icred.model.node.entity.Valuation;
+import eu.icred.model.node.group.Address;
+
+/**
+ * value conversion BIIS -&gt; GIF and back
+ * 
+ * <p>
+ * The enum codes are tables; the way back (GIF -&gt; BIIS) is derived from
+ * them, the first code of a value wins.
+ * </p>
+ */
+final class BiisConverter {
+    static final CodeTable<AreaMeasurement> BIIS2GIF_AREA_MEASUREMENT = new CodeTable<AreaMeasurement>(
+            AreaMeasurement.NOT_SPECIFIED)
+            .put("sqft", AreaMeasurement.SQFT)
+            .put("qm", AreaMeasurement.SQM)
+            .put("tsubo", AreaMeasurement.TSUBO)
+            .put("pyeong", AreaMeasurement.TSUBO);
+
+    static final CodeTable<ConstructionPhase> BIIS2GIF_CONSTRUCTION_PHASE = new CodeTable<ConstructionPhase>(null)
+            .put("F", ConstructionPhase.COMPLETED)
+            .put("I", ConstructionPhase.IN_COMPLETION)
+            .put("P", ConstructionPhase.PLANNED)
+            .put("0", ConstructionPhase.OTHER);
+
+    static final CodeTable<ValuationType1> BIIS2GIF_VALUATION_TYPE1 = new CodeTable<ValuationType1>(null)
+            .put("Fondsgutachten", ValuationType1.FUND)
+            .put("Privatgutachten", ValuationType1.PRIVATE)
+            .put("Gerichtsgutachten", ValuationType1.COURT)
+            .put("Fremdgutachten", ValuationType1.THIRD_PERSON);
+
+    static final CodeTable<ValuationType2> BIIS2GIF_VALUATION_TYPE2 = new CodeTable<ValuationType2>(null)
+            .put("U", ValuationType2.UNKNOWN)
+            .put("E", ValuationType2.FIRST_VALUATION)
+            .put("N", ValuationType2.REVALUATION)
+            .put("V", ValuationType2.MARKET_VALUATION_REPORT);
+
+    static final CodeTable<UseType> BIIS2GIF_USE_TYPE = new CodeTable<UseType>(UseType.NOT_SPECIFIED)
+            .put("Buero", UseType.OFFICE)
+            .put("Handel", UseType.RETAIL)
+            .put("Industrie(Lager,Hallen)", UseType.INDUSTRY)
+            .put("Keller/Archiv", UseType.OTHER)
+            .put("Gastronomie", UseType.GASTRONOMY)
+            .put("Hotel", UseType.HOTEL)
+            .put("Wohnen", UseType.RESIDENTIAL)
+            .put("Freizeit", UseType.LEISURE)
+            .put("Garage/TG", UseType.PARKING)
+            .put("Aussenstellplaetze", UseType.PARKING)
+            .put("unbekannt", UseType.NOT_SPECIFIED);
+
+    // codes not known yet
+    static final CodeTable<OwnershipType> BIIS2GIF_OWNERSHIP_TYPE = new CodeTable<OwnershipType>(null);
+    static final CodeTable<RetailLocationType> BIIS2GIF_RETAIL_LOCATION_TYPE = new CodeTable<RetailLocationType>(null);
+    static final CodeTable<ObjectCondition> BIIS2GIF_CONDITION = new CodeTable<ObjectCondition>(null);
+    static final CodeTable<InteriorQuality> BIIS2GIF_INTERIOR_QUALITY = new CodeTable<InteriorQuality>(null);
+
+    static final CodeTable<Country> BIIS2GIF_COUNTRY = new CodeTable<Country>(null);
+
+    static {
+        for (Country country : Country.values()) {
+            BIIS2GIF_COUNTRY.put(country.name(), country);
+        }
+    }
+
+    static final Map<UseType, String> GIF2BIIS_USE_TYPE = BIIS2GIF_USE_TYPE.reverse(UseType.class);
+    static final Map<ValuationType1, String> GIF2BIIS_VALUATION_TYPE1 = BIIS2GIF_VALUATION_TYPE1.reverse(ValuationType1.class);
+    static final Map<ValuationType2, String> GIF2BIIS_VALUATION_TYPE2 = BIIS2GIF_VALUATION_TYPE2.reverse(ValuationType2.class);
+    static final Map<ConstructionPhase, String> GIF2BIIS_CONSTRUCTION_PHASE = BIIS2GIF_CONSTRUCTION_PHASE
+            .reverse(ConstructionPhase.class);
+
+    private static final Address EMPTY_ADDRESS = new Address();
+
+    private BiisConverter() {
+    }
+
+    static <E extends Enum<E>> String gif2biis(Map<E, String> table, E gifValue) {
+        if (gifValue == null)
+            return null;
+
+        return table.get(gifValue);
+    }
+
+    static String gif2biis_Double(Double gifValue) {
+        if (gifValue == null)
+            return null;
+
+        // xs:decimal has no exponent notation
+        return BigDecimal.valueOf(gifValue).stripTrailingZeros().toPlainString();
+    }
+
+    static String gif2biis_Boolean(Boolean gifValue) {
+        if (gifValue == null)
+            return null;
+
+        return gifValue.booleanValue() ? "true" : "false";
+    }
+
+    static String gif2biis_Date(LocalDate gifValue) {
+        if (gifValue == null)
+            return null;
+
+        return gifValue.toString();
+    }
+
+    /**
+     * @return address of the valuation, never <code>null</code>
+     */
+    static Address address(Valuation val) {
+        Address address = val.getAddress();
+        return address == null ? EMPTY_ADDRESS : address;
+    }
+}
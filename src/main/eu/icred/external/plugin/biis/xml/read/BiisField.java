@@ -0,0 +1,636 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import static eu.icred.external.plugin.biis.xml.read.BiisConverter.*;
+
+import eu.icred.model.datatype.enumeration.Country;
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+
+/**
+ * mapping table BIIS path -&gt; GIF model
+ * 
+ * <p>
+ * every row maps one leaf element (path of local names, namespace prefixes
+ * are ignored) to its setter. Elements without a row are skipped by the
+ * reader, e.g. QualityDateOfAppraisal. The rows are in schema order and also
+ * drive the writer, which uses {@link #format(Meta, Property, Valuation)} for
+ * the way back. To map a new element add a row - reader and writer need no
+ * change.
+ * </p>
+ * <p>
+ * Rows below {@link #OBJECT_PATH} belong to one object; the others to the
+ * whole document.
+ * </p>
+ */
+public enum BiisField {
+    DATE("ValXML/Date") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            // ignore - see field DateOfAppraisal
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return meta.getCreated() == null ? null : meta.getCreated().toLocalDate().toString();
+        }
+    },
+    COMPLETION_DATE("ValXML/CompletionDate") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.meta.setCreated(text.toLocalDateTime());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return meta.getCreated() == null ? null : meta.getCreated().toString();
+        }
+    },
+    DATA_SUPPLIER_SHORT("ValXML/DataSupplier/Short") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.expertId = text.string();
+            s.val.setExpertId(s.expertId);
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getExpertId();
+        }
+    },
+    DATA_SUPPLIER_NAME("ValXML/DataSupplier/Name") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.expertName = text.string();
+            s.val.setExpertName(s.expertName);
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getExpertName();
+        }
+    },
+    AREAL_UNIT("ValXML/BIISValuationData/General/ArealUnit") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.mainAreaMeasurement = text.lookup(BIIS2GIF_AREA_MEASUREMENT);
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            // not part of the model
+            return null;
+        }
+    },
+    STREET("ValXML/BIISValuationData/General/Address/Street") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.valAddress.setStreet(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return address(val).getStreet();
+        }
+    },
+    POST_CODE("ValXML/BIISValuationData/General/Address/PostCode") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.valAddress.setZip(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return address(val).getZip();
+        }
+    },
+    TOWN("ValXML/BIISValuationData/General/Address/Town") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.valAddress.setCity(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return address(val).getCity();
+        }
+    },
+    COUNTRY("ValXML/BIISValuationData/General/Address/Country") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            if (!text.isEmpty()) {
+                Country country = text.lookup(BIIS2GIF_COUNTRY);
+                if (country == null) {
+                    throw new IllegalArgumentException("unknown country " + text);
+                }
+                s.valAddress.setCountry(country);
+            }
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            Country country = address(val).getCountry();
+            return country == null ? null : country.name();
+        }
+    },
+    TEXT("ValXML/BIISValuationData/General/Address/Text") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            String label = text.string();
+            s.prop.setLabel(label);
+            s.valAddress.setLabel(label);
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return prop.getLabel();
+        }
+    },
+    OWNER("ValXML/BIISValuationData/General/Owner") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setOwner(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getOwner();
+        }
+    },
+    OBJ_NO_OWNER("ValXML/BIISValuationData/General/ObjNoOwner") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            String objId = text.string();
+            s.prop.setObjectIdSender(objId);
+            s.prop.setObjectIdReceiver(objId);
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return prop.getObjectIdSender();
+        }
+    },
+    LONGITUDE("ValXML/BIISValuationData/General/ObjKoWGS84Longitude") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.valAddress.setLongitude(text.toDouble());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Double(address(val).getLongitude());
+        }
+    },
+    LATITUDE("ValXML/BIISValuationData/General/ObjKoWGS84Latitude") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.valAddress.setLatitude(text.toDouble());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Double(address(val).getLatitude());
+        }
+    },
+    REBASE_TYPE1("ValXML/BIISValuationData/ValuationResults/RebaseType1") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setValuationType1(text.lookup(BIIS2GIF_VALUATION_TYPE1));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis(GIF2BIIS_VALUATION_TYPE1, val.getValuationType1());
+        }
+    },
+    REBASE_TYPE2("ValXML/BIISValuationData/ValuationResults/RebaseType2") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setValuationType2(text.lookup(BIIS2GIF_VALUATION_TYPE2));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis(GIF2BIIS_VALUATION_TYPE2, val.getValuationType2());
+        }
+    },
+    REBASE_OBJ_ADDITIONAL_INFORMATION("ValXML/BIISValuationData/ValuationResults/RebaseObjAdditionalInformation") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setNote(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getNote();
+        }
+    },
+    DATE_OF_APPRAISAL("ValXML/BIISValuationData/ValuationResults/DateOfAppraisal") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setValidFrom(text.toLocalDate());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Date(val.getValidFrom());
+        }
+    },
+    CURRENCY("ValXML/BIISValuationData/ValuationResults/Currency") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.mainCurrency = text.toCurrency();
+            s.val.setCurrency(s.mainCurrency);
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getCurrency() == null ? null : val.getCurrency().getCurrencyCode();
+        }
+    },
+    DATE_EXCHANGE_RATE("ValXML/BIISValuationData/ValuationResults/DateExchangeRate") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setExchangeRateDate(text.toLocalDate());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Date(val.getExchangeRateDate());
+        }
+    },
+    MAIN_TYPE_OF_USE("ValXML/BIISValuationData/ValuationResults/MainTypeOfUse") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setUseTypePrimary(text.lookup(BIIS2GIF_USE_TYPE));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis(GIF2BIIS_USE_TYPE, val.getUseTypePrimary());
+        }
+    },
+    SHARE_MAIN_TYPE_OF_USE("ValXML/BIISValuationData/ValuationResults/ShareMainTypeOfUse") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setUseTypePrimaryShare(text.toDouble());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Double(val.getUseTypePrimaryShare());
+        }
+    },
+    ANCILLARY_TYPE_OF_USE("ValXML/BIISValuationData/ValuationResults/AncillaryTypeOfUse") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setUseTypeSecondary(text.lookup(BIIS2GIF_USE_TYPE));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis(GIF2BIIS_USE_TYPE, val.getUseTypeSecondary());
+        }
+    },
+    SHARE_ANCILLARY_TYPE_OF_USE("ValXML/BIISValuationData/ValuationResults/ShareAncillaryTypeOfUse") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setUseTypeSecondaryShare(text.toDouble());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Double(val.getUseTypeSecondaryShare());
+        }
+    },
+    TYPE_OF_OWNERSHIP("ValXML/BIISValuationData/ValuationResults/TypeOfOwnership") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setOwnershipType(text.lookup(BIIS2GIF_OWNERSHIP_TYPE));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            // no codes yet, see BIIS2GIF_OWNERSHIP_TYPE
+            return null;
+        }
+    },
+    SINGLE_TENANT("ValXML/BIISValuationData/ValuationResults/SingleTenant") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setSingleTenant(text.toBoolean());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Boolean(val.getSingleTenant());
+        }
+    },
+    DATE_OF_PURCHASE("ValXML/BIISValuationData/ValuationResults/DateOfPurchase") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setPurchaseDate(text.toLocalDate());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Date(val.getPurchaseDate());
+        }
+    },
+    DATE_OF_SALE("ValXML/BIISValuationData/ValuationResults/DateOfSale") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setSaleDate(text.toLocalDate());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Date(val.getSaleDate());
+        }
+    },
+    LOCATION_QUALITY("ValXML/BIISValuationData/ValuationResults/LocationQuality") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setRetailLocation(text.lookup(BIIS2GIF_RETAIL_LOCATION_TYPE));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            // no codes yet, see BIIS2GIF_RETAIL_LOCATION_TYPE
+            return null;
+        }
+    },
+    STRUCTURAL_CONDITION("ValXML/BIISValuationData/ValuationResults/StructuralCondition") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setCondition(text.lookup(BIIS2GIF_CONDITION));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            // no codes yet, see BIIS2GIF_CONDITION
+            return null;
+        }
+    },
+    FIT_OUT_QUALITY("ValXML/BIISValuationData/ValuationResults/FitOutQuality") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setInteriorQuality(text.lookup(BIIS2GIF_INTERIOR_QUALITY));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            // no codes yet, see BIIS2GIF_INTERIOR_QUALITY
+            return null;
+        }
+    },
+    STATE_OF_COMPLETION("ValXML/BIISValuationData/ValuationResults/StateOfCompletion") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setConstructionPhase(text.lookup(BIIS2GIF_CONSTRUCTION_PHASE));
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis(GIF2BIIS_CONSTRUCTION_PHASE, val.getConstructionPhase());
+        }
+    },
+    MAINTENANCE_BACKLOG("ValXML/BIISValuationData/ValuationResults/MaintenanceBacklog") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setMaintenanceBacklog(text.toBoolean());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Boolean(val.getMaintenanceBacklog());
+        }
+    },
+    FLOORS("ValXML/BIISValuationData/ValuationResults/Floors") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setFloorDescription(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getFloorDescription();
+        }
+    },
+    ORIGINAL_YEAR_OF_CONSTRUCTION("ValXML/BIISValuationData/ValuationResults/OriginalYearOfConstruction") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setConstructionDate(text.toLocalDate());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getConstructionDate() == null ? null : String.valueOf(val.getConstructionDate().getYear());
+        }
+    },
+    DATE_OF_CHANGE_FOR_REMAINING_ECONOMIC_LIFE("ValXML/BIISValuationData/ValuationResults/DateOfChangeForRemainingEconomicLife") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setChangeDateForRemainingEconomicLife(text.toLocalDate());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Date(val.getChangeDateForRemainingEconomicLife());
+        }
+    },
+    GROUND_LEASE("ValXML/BIISValuationData/ValuationResults/GroundLease") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setGroundLease(text.toBoolean());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return gif2biis_Boolean(val.getGroundLease());
+        }
+    },
+    GROUND_LEASE_REMARKS("ValXML/BIISValuationData/ValuationResults/GroundLeaseRemarks") {
+        @Override
+        void apply(ParseState s, TextDecoder text) {
+            s.val.setGroundLeaseRemarks(text.string());
+        }
+
+        @Override
+        public String format(Meta meta, Property prop, Valuation val) {
+            return val.getGroundLeaseRemarks();
+        }
+    };
+
+    /*
+     * not mapped yet - the model offers no target for these (type;element
+     * below ValXML/BIISValuationData/ValuationResults):
+     * 
+     * xs:decimal;CapitalizationRate
+     * xs:decimal;CostApproach
+     * xs:decimal;DeductionConstructionWorks
+     * xs:decimal;DeductionForVacancy
+     * xs:decimal;DiscountsPremiums
+     * xs:decimal;ExchangeRate1EUR
+     * xs:decimal;GrossFloorSpaceBelowGround
+     * xs:decimal;GrossFloorSpaceOverground
+     * xs:decimal;GroundRent
+     * xs:decimal;LandSize
+     * xs:decimal;LandValue
+     * xs:decimal;MaintenanceExpenses
+     * xs:decimal;ManagementCosts
+     * xs:decimal;MarketValue
+     * xs:decimal;OtherOperatingExpenses
+     * xs:decimal;OthersDiscountsPremiums
+     * xs:decimal;PriceOfSale
+     * xs:decimal;PurchasePrice
+     * xs:decimal;RemainingEconomicLife
+     * xs:decimal;RemainingLifeOfGroundLease
+     * xs:decimal;RentAllowance
+     * xs:decimal;RentalSituationArchiveContractualAnnualRent
+     * xs:decimal;RentalSituationArchiveEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationArchiveEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationArchiveLetArea
+     * xs:decimal;RentalSituationArchiveVacantArea
+     * xs:decimal;RentalSituationGastroContractualAnnualRent
+     * xs:decimal;RentalSituationGastroEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationGastroEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationGastroLetArea
+     * xs:decimal;RentalSituationGastroVacantArea
+     * xs:decimal;RentalSituationHotelContractualAnnualRent
+     * xs:decimal;RentalSituationHotelEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationHotelEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationHotelLetArea
+     * xs:decimal;RentalSituationHotelVacantArea
+     * xs:decimal;RentalSituationIndoorparkingContractualAnnualRent
+     * xs:decimal;RentalSituationIndoorparkingEstimatedAnnualRentForLetNumbers
+     * xs:decimal;RentalSituationIndoorparkingEstimatedAnnualRentForVacantNumbers
+     * xs:decimal;RentalSituationIndoorparkingLetNumbers
+     * xs:decimal;RentalSituationIndoorparkingVacantNumbers
+     * xs:decimal;RentalSituationLeisureContractualAnnualRent
+     * xs:decimal;RentalSituationLeisureEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationLeisureEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationLeisureLetArea
+     * xs:decimal;RentalSituationLeisureVacantArea
+     * xs:decimal;RentalSituationMiscArea1ContractualAnnualRent
+     * xs:decimal;RentalSituationMiscArea1EstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationMiscArea1EstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationMiscArea1LetArea
+     * xs:decimal;RentalSituationMiscArea1VacantArea
+     * xs:decimal;RentalSituationMiscArea2ContractualAnnualRent
+     * xs:decimal;RentalSituationMiscArea2EstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationMiscArea2EstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationMiscArea2LetArea
+     * xs:decimal;RentalSituationMiscArea2VacantArea
+     * xs:decimal;RentalSituationMiscnumbers1ContractualAnnualRent
+     * xs:decimal;RentalSituationMiscnumbers1EstimatedAnnualRentForLetNumbers
+     * xs:decimal;RentalSituationMiscnumbers1EstimatedAnnualRentForVacantNumbers
+     * xs:decimal;RentalSituationMiscnumbers1LetNumbers
+     * xs:decimal;RentalSituationMiscnumbers1VacantNumbers
+     * xs:decimal;RentalSituationMiscnumbers2ContractualAnnualRent
+     * xs:decimal;RentalSituationMiscnumbers2EstimatedAnnualRentForLetNumbers
+     * xs:decimal;RentalSituationMiscnumbers2EstimatedAnnualRentForVacantNumbers
+     * xs:decimal;RentalSituationMiscnumbers2LetNumbers
+     * xs:decimal;RentalSituationMiscnumbers2VacantNumbers
+     * xs:decimal;RentalSituationOfficeContractualAnnualRent
+     * xs:decimal;RentalSituationOfficeEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationOfficeEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationOfficeLetArea
+     * xs:decimal;RentalSituationOfficeVacantArea
+     * xs:decimal;RentalSituationOutsideparkingContractualAnnualRent
+     * xs:decimal;RentalSituationOutsideparkingEstimatedAnnualRentForLetNumbers
+     * xs:decimal;RentalSituationOutsideparkingEstimatedAnnualRentForVacantNumbers
+     * xs:decimal;RentalSituationOutsideparkingLetNumbers
+     * xs:decimal;RentalSituationOutsideparkingVacantNumbers
+     * xs:decimal;RentalSituationResidentialContractualAnnualRent
+     * xs:decimal;RentalSituationResidentialEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationResidentialEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationResidentialLetArea
+     * xs:decimal;RentalSituationResidentialVacantArea
+     * xs:decimal;RentalSituationRetailContractualAnnualRent
+     * xs:decimal;RentalSituationRetailEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationRetailEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationRetailLetArea
+     * xs:decimal;RentalSituationRetailVacantArea
+     * xs:decimal;RentalSituationStorageContractualAnnualRent
+     * xs:decimal;RentalSituationStorageEstimatedAnnualRentForLetArea
+     * xs:decimal;RentalSituationStorageEstimatedAnnualRentForVacantArea
+     * xs:decimal;RentalSituationStorageLetArea
+     * xs:decimal;RentalSituationStorageVacantArea
+     * xs:decimal;RunningCosts
+     * xs:decimal;SiteCoverageRatio
+     * xs:decimal;TotalGrossFloorSpace
+     * xs:decimal;TotalRentableArea
+     * xs:decimal;ValueByIncomeApproach
+     * xs:decimal;ValueByIncomeApproachWithoutPremiumsDiscounts
+     * xs:double;FloorToAreaRatio
+     * xs:integer;CalculatedYearOfConstruction
+     * xs:integer;NormalTotalEconomicLife
+     */
+
+    /**
+     * element holding one object (property with valuation)
+     */
+    public static final String OBJECT_PATH = "ValXML/BIISValuationData";
+
+    private final String path;
+
+    private BiisField(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return BIIS path, local names separated by "/"
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return <code>true</code> if the field belongs to one object (below
+     *         {@link #OBJECT_PATH}), <code>false</code> for document level
+     */
+    public boolean isObjectField() {
+        return path.startsWith(OBJECT_PATH + "/");
+    }
+
+    /**
+     * @param path
+     *            BIIS path, local names separated by "/"
+     * @return field mapped to the path
+     * @throws IllegalArgumentException
+     *             if the path is not mapped
+     */
+    public static BiisField forPath(String path) {
+        for (BiisField field : values()) {
+            if (field.path.equals(path)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("BIIS path not mapped: " + path);
+    }
+
+    /**
+     * writes the element text into the model; not called for
+     * <code>xsi:nil</code> elements
+     * 
+     * @param s
+     *            target objects
+     * @param text
+     *            element text
+     */
+    abstract void apply(ParseState s, TextDecoder text);
+
+    /**
+     * reads the element text from the model
+     * 
+     * @param meta
+     *            container meta
+     * @param prop
+     *            property
+     * @param val
+     *            valuation of <code>prop</code>
+     * @return element text or <code>null</code> if not set
+     */
+    public abstract String format(Meta meta, Property prop, Valuation val);
+}
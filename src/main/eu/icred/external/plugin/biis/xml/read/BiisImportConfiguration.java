@@ -0,0 +1,133 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import eu.icred.plugin.worker.input.ImportWorkerConfiguration;
+
+/**
+ * import configuration with BIIS specific options
+ * 
+ * <p>
+ * A projection restricts the import to some fields, e.g. DateOfAppraisal and
+ * ObjNoOwner for a daily check: all other elements are skipped without
+ * decoding, and an object is left as soon as all its wanted fields are seen.
+ * Only elements with a {@link BiisField} row can be projected, others (like
+ * MarketValue) are never imported.
+ * </p>
+ * <p>
+ * The rest of a stream is still read, only {@link #setMaxObjects(int)} stops
+ * early: with 1 (for the usual one-object ValXML files) the reader stops after
+ * the first object. With the default 0 every stream is read to the end.
+ * </p>
+ */
+public class BiisImportConfiguration extends ImportWorkerConfiguration {
+    private Set<BiisField> fields = EnumSet.allOf(BiisField.class);
+    private int maxObjects = 0;
+    private ParseCache cache = null;
+
+    /**
+     * @return fields to import
+     */
+    public Set<BiisField> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * @param fields
+     *            fields to import, default all
+     */
+    public void setFields(Collection<BiisField> fields) {
+        this.fields = fields.isEmpty() ? EnumSet.noneOf(BiisField.class) : EnumSet.copyOf(fields);
+    }
+
+    /**
+     * @param paths
+     *            BIIS paths of the fields to import, see
+     *            {@link BiisField#forPath(String)}
+     */
+    public void setPaths(Collection<String> paths) {
+        Set<BiisField> fields = EnumSet.noneOf(BiisField.class);
+        for (String path : paths) {
+            fields.add(BiisField.forPath(path));
+        }
+        this.fields = fields;
+    }
+
+    /**
+     * @return maximum number of objects read per stream, 0 for all
+     */
+    public int getMaxObjects() {
+        return maxObjects;
+    }
+
+    /**
+     * @param maxObjects
+     *            maximum number of objects read per stream, 0 for all
+     *            (default)
+     */
+    public void setMaxObjects(int maxObjects) {
+        if (maxObjects < 0) {
+            throw new IllegalArgumentException("maxObjects must not be negative: " + maxObjects);
+        }
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * @return cache of parse results, <code>null</code> if none
+     */
+    public ParseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @param cache
+     *            cache of parse results - unchanged files are not parsed
+     *            again; <code>null</code> (default) for none
+     */
+    public void setCache(ParseCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @return cache of <code>config</code>, which may be any import
+     *         configuration
+     */
+    static ParseCache getCache(ImportWorkerConfiguration config) {
+        if (config instanceof BiisImportConfiguration) {
+            return ((BiisImportConfiguration) config).cache;
+        }
+        return null;
+    }
+
+    /**
+     * @return <code>parser</code> if it reads with the options of
+     *         <code>config</code>, else a new one
+     */
+    static ValXmlParser reuseParser(ValXmlParser parser, ImportWorkerConfiguration config) {
+        if (parser == null) {
+            return createParser(config);
+        }
+        Set<BiisField> fields = EnumSet.allOf(BiisField.class);
+        int maxObjects = 0;
+        if (config instanceof BiisImportConfiguration) {
+            fields = ((BiisImportConfiguration) config).fields;
+            maxObjects = ((BiisImportConfiguration) config).maxObjects;
+        }
+        return parser.fields.equals(fields) && parser.maxObjects == maxObjects ? parser : createParser(config);
+    }
+
+    /**
+     * @return parser for the options of <code>config</code>, which may be any
+     *         import configuration
+     */
+    static ValXmlParser createParser(ImportWorkerConfiguration config) {
+        if (config instanceof BiisImportConfiguration) {
+            BiisImportConfiguration biisConfig = (BiisImportConfiguration) config;
+            return new ValXmlParser(biisConfig.fields, biisConfig.maxObjects);
+        }
+        return new ValXmlParser();
+    }
+}
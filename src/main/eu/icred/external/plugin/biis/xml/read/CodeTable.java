@@ -0,0 +1,141 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * open addressing hash table from BIIS codes to GIF values, looked up directly
+ * on a char buffer so no String is created per element
+ *
+ * @param <V>
+ *            GIF value type
+ */
+final class CodeTable<V> {
+    private final V defaultValue;
+
+    private char[][] keys = new char[16][];
+    private Object[] values = new Object[16];
+    private int size = 0;
+
+    // insertion order, for the way back
+    private String[] codes = new String[8];
+    private Object[] ordered = new Object[8];
+
+    /**
+     * @param defaultValue
+     *            result for unknown codes
+     */
+    CodeTable(V defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * adds a code
+     *
+     * @return this
+     */
+    CodeTable<V> put(String code, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        insert(code.toCharArray(), value);
+
+        if (size == codes.length) {
+            String[] newCodes = new String[size * 2];
+            Object[] newOrdered = new Object[size * 2];
+            System.arraycopy(codes, 0, newCodes, 0, size);
+            System.arraycopy(ordered, 0, newOrdered, 0, size);
+            codes = newCodes;
+            ordered = newOrdered;
+        }
+        codes[size] = code;
+        ordered[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * @return value of the code or the default value
+     */
+    @SuppressWarnings("unchecked")
+    V get(char[] buf, int off, int len) {
+        int mask = keys.length - 1;
+        for (int i = hash(buf, off, len) & mask;; i = (i + 1) & mask) {
+            char[] key = keys[i];
+            if (key == null) {
+                return defaultValue;
+            }
+            if (equals(key, buf, off, len)) {
+                return (V) values[i];
+            }
+        }
+    }
+
+    /**
+     * @return value of the code or the default value
+     */
+    V get(String code) {
+        char[] chars = code.toCharArray();
+        return get(chars, 0, chars.length);
+    }
+
+    /**
+     * @return GIF -&gt; BIIS table, the first code of a value wins
+     */
+    @SuppressWarnings("unchecked")
+    <E extends Enum<E>> Map<E, String> reverse(Class<E> type) {
+        Map<E, String> reverse = new EnumMap<E, String>(type);
+        for (int i = 0; i < size; i++) {
+            E value = (E) ordered[i];
+            if (value != null && !reverse.containsKey(value)) {
+                reverse.put(value, codes[i]);
+            }
+        }
+        return reverse;
+    }
+
+    private void insert(char[] key, Object value) {
+        int mask = keys.length - 1;
+        int i = hash(key, 0, key.length) & mask;
+        while (keys[i] != null) {
+            if (equals(keys[i], key, 0, key.length)) {
+                throw new IllegalArgumentException("duplicate code " + new String(key));
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void rehash(int capacity) {
+        char[][] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new char[capacity][];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(char[] buf, int off, int len) {
+        int h = 0;
+        for (int i = off; i < off + len; i++) {
+            h = 31 * h + buf[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(char[] key, char[] buf, int off, int len) {
+        if (key.length != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (key[i] != buf[off + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,260 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+/**
+ * import statistics of all readers of this plugin
+ *
+ * <p>
+ * Disabled by default: the parser then only checks one flag per file. After
+ * {@link #enable()} the statistics are available via JMX under
+ * {@link #OBJECT_NAME} and every parsed file is logged at debug level.
+ * </p>
+ */
+public class ImportMetrics implements ImportMetricsMXBean {
+    private static Logger logger = Logger.getLogger(ImportMetrics.class);
+
+    public static final String OBJECT_NAME = "eu.icred.external.plugin.biis.xml:type=ImportMetrics";
+
+    private static final long[] LATENCY_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+    private static final ImportMetrics INSTANCE = new ImportMetrics();
+
+    private volatile boolean enabled = false;
+    private boolean registered = false;
+
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong failedFiles = new AtomicLong();
+    private final AtomicLong elements = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong convertNanos = new AtomicLong();
+    private final AtomicLong populateNanos = new AtomicLong();
+    private final AtomicLongArray latency = new AtomicLongArray(LATENCY_BOUNDS_MILLIS.length + 1);
+    private final AtomicLongArray fieldFailures = new AtomicLongArray(BiisField.values().length);
+    private final ConcurrentMap<String, AtomicLong> unmapped = new ConcurrentHashMap<String, AtomicLong>();
+
+    private ImportMetrics() {
+    }
+
+    /**
+     * @return the statistics
+     */
+    public static ImportMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * registers the statistics at the platform MBean server (once) and
+     * starts recording
+     */
+    public static void enable() {
+        INSTANCE.register();
+        INSTANCE.setEnabled(true);
+    }
+
+    /**
+     * @return the statistics if recording, else <code>null</code>
+     */
+    static ImportMetrics active() {
+        return INSTANCE.enabled ? INSTANCE : null;
+    }
+
+    private synchronized void register() {
+        if (registered) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+            registered = true;
+        } catch (JMException e) {
+            logger.warn("could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * records a parsed file
+     *
+     * @param failed
+     *            <code>true</code> if the import ended with an error
+     */
+    void fileParsed(String source, long nanos, long elements, long bytes, long convertNanos, long populateNanos,
+            boolean failed) {
+        files.incrementAndGet();
+        if (failed) {
+            failedFiles.incrementAndGet();
+        }
+        this.elements.addAndGet(elements);
+        this.bytes.addAndGet(bytes);
+        parseNanos.addAndGet(nanos);
+        this.convertNanos.addAndGet(convertNanos);
+        this.populateNanos.addAndGet(populateNanos);
+
+        long millis = nanos / 1000000;
+        int bucket = 0;
+        while (bucket < LATENCY_BOUNDS_MILLIS.length && millis > LATENCY_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        latency.incrementAndGet(bucket);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug((source == null ? "stream" : source) + " parsed in " + millis + " ms: " + elements
+                    + " elements, " + bytes + " bytes" + (failed ? ", failed" : ""));
+        }
+    }
+
+    /**
+     * records a file served from a {@link ParseCache}; it counts as parsed
+     * file without elements
+     */
+    void cacheHit(String source, long nanos, long bytes, long populateNanos) {
+        cacheHits.incrementAndGet();
+        fileParsed(source, nanos, 0, bytes, 0, populateNanos, false);
+    }
+
+    void fieldFailed(BiisField field) {
+        fieldFailures.incrementAndGet(field.ordinal());
+    }
+
+    void unmappedElement(String localName) {
+        AtomicLong count = unmapped.get(localName);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = unmapped.putIfAbsent(localName, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        files.set(0);
+        cacheHits.set(0);
+        failedFiles.set(0);
+        elements.set(0);
+        bytes.set(0);
+        parseNanos.set(0);
+        convertNanos.set(0);
+        populateNanos.set(0);
+        for (int i = 0; i < latency.length(); i++) {
+            latency.set(i, 0);
+        }
+        for (int i = 0; i < fieldFailures.length(); i++) {
+            fieldFailures.set(i, 0);
+        }
+        unmapped.clear();
+    }
+
+    @Override
+    public long getFiles() {
+        return files.get();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    @Override
+    public long getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    @Override
+    public long getElements() {
+        return elements.get();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public double getElementsPerSecond() {
+        return perSecond(elements.get());
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return perSecond(bytes.get());
+    }
+
+    @Override
+    public long getTokenizeMillis() {
+        return (parseNanos.get() - convertNanos.get() - populateNanos.get()) / 1000000;
+    }
+
+    @Override
+    public long getConvertMillis() {
+        return convertNanos.get() / 1000000;
+    }
+
+    @Override
+    public long getPopulateMillis() {
+        return populateNanos.get() / 1000000;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < LATENCY_BOUNDS_MILLIS.length; i++) {
+            histogram.put("<=" + LATENCY_BOUNDS_MILLIS[i] + "ms", latency.get(i));
+        }
+        histogram.put(">" + LATENCY_BOUNDS_MILLIS[LATENCY_BOUNDS_MILLIS.length - 1] + "ms",
+                latency.get(LATENCY_BOUNDS_MILLIS.length));
+        return histogram;
+    }
+
+    @Override
+    public Map<String, Long> getFieldFailures() {
+        Map<String, Long> failures = new TreeMap<String, Long>();
+        for (BiisField field : BiisField.values()) {
+            long count = fieldFailures.get(field.ordinal());
+            if (count > 0) {
+                failures.put(field.getPath(), count);
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public Map<String, Long> getUnmappedElements() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : unmapped.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    private double perSecond(long count) {
+        long nanos = parseNanos.get();
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,91 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link ImportMetrics}
+ *
+ * <p>
+ * Times are summed over all parsed files (and threads), so the rates are
+ * per parsing thread.
+ * </p>
+ */
+public interface ImportMetricsMXBean {
+    boolean isEnabled();
+
+    /**
+     * @param enabled
+     *            records the imports from now on
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * sets all counters to 0
+     */
+    void reset();
+
+    /**
+     * @return number of parsed files, including cache hits
+     */
+    long getFiles();
+
+    /**
+     * @return number of files served from a {@link ParseCache}, included in
+     *         {@link #getFiles()}
+     */
+    long getCacheHits();
+
+    /**
+     * @return number of files whose import ended with an error
+     */
+    long getFailedFiles();
+
+    /**
+     * @return number of xml elements read (including skipped ones)
+     */
+    long getElements();
+
+    /**
+     * @return number of bytes read
+     */
+    long getBytes();
+
+    double getElementsPerSecond();
+
+    double getBytesPerSecond();
+
+    /**
+     * @return time spent in the xml parser, including skipping unmapped
+     *         elements
+     */
+    long getTokenizeMillis();
+
+    /**
+     * @return time spent converting the element texts and setting them on
+     *         the model objects
+     */
+    long getConvertMillis();
+
+    /**
+     * @return time spent handing out the finished objects (adding them to
+     *         the container, or the listener of a streaming import)
+     */
+    long getPopulateMillis();
+
+    /**
+     * @return number of files by parse time, e.g. "&lt;=20ms"
+     */
+    Map<String, Long> getLatencyHistogram();
+
+    /**
+     * @return number of values that could not be converted, by field
+     */
+    Map<String, Long> getFieldFailures();
+
+    /**
+     * @return number of elements that have no mapping, by local name; the
+     *         children of an unmapped element are not counted (recorded for
+     *         imports of all fields only)
+     */
+    Map<String, Long> getUnmappedElements();
+}
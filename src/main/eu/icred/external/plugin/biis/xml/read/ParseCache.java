@@ -0,0 +1,409 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.log4j.Logger;
+
+import eu.icred.external.plugin.biis.xml.Plugin;
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+
+/**
+ * persistent cache of parse results, keyed by the file content
+ *
+ * <p>
+ * An entry holds the values the parser applied to the model (field and
+ * decoded element text) in a compact binary form; a hit replays them through
+ * the {@link BiisField} mapping instead of parsing the xml again, which gives
+ * exactly the objects a parse would give. The key is a hash of the content,
+ * the plugin and model version, the mapping and the projection of the
+ * configuration - after an update of the plugin old entries are never hit
+ * again and age out.
+ * </p>
+ * <p>
+ * The cache is bounded by the total size of its files; the least recently
+ * used entries are deleted first. One directory may be shared by several
+ * readers and threads.
+ * </p>
+ * <p>
+ * The content of a stream is read into memory to compute the key, so the
+ * cache is meant for the usual per-object ValXML files, not for huge
+ * archives.
+ * </p>
+ */
+public class ParseCache {
+    private static Logger logger = Logger.getLogger(ParseCache.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int MAGIC = 0x42494943; // "BIIC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".bin";
+
+    // record tags; field records are tagged by the ordinal
+    private static final int START_OBJECT = 0x80;
+    private static final int END_OBJECT = 0x81;
+
+    static {
+        if (BiisField.values().length > START_OBJECT) {
+            throw new IllegalStateException("too many fields for the record format");
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String version;
+
+    private long size = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param directory
+     *            cache directory, created if missing
+     * @param maxBytes
+     *            upper bound of the total size of all entries
+     */
+    public ParseCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+
+        Plugin plugin = new Plugin();
+        if (!plugin.isModelVersionSupported(Reader.MODEL_VERSION)) {
+            throw new IllegalStateException("model version " + Reader.MODEL_VERSION + " not supported");
+        }
+        StringBuilder version = new StringBuilder();
+        version.append(FORMAT_VERSION).append('|').append(plugin.getPluginVersion()).append('|')
+                .append(Reader.MODEL_VERSION);
+        for (BiisField field : BiisField.values()) {
+            version.append('|').append(field.name()).append('=').append(field.getPath());
+        }
+        this.version = version.toString();
+
+        Files.createDirectories(directory);
+        DirectoryStream<Path> files = Files.newDirectoryStream(directory);
+        try {
+            for (Path file : files) {
+                if (file.getFileName().toString().endsWith(SUFFIX)) {
+                    size += Files.size(file);
+                } else if (file.getFileName().toString().endsWith(".tmp")) {
+                    // left over by a crash
+                    Files.deleteIfExists(file);
+                }
+            }
+        } finally {
+            files.close();
+        }
+    }
+
+    /**
+     * @return number of streams served from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of streams parsed (and stored)
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return total size of all entries in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * parses <code>in</code> or replays its cached result; only results
+     * without {@link ParseError}s are stored
+     */
+    void parse(ValXmlParser parser, InputStream in, String source, Meta meta, ValuationListener listener)
+            throws IOException, XMLStreamException {
+        ImportMetrics metrics = ImportMetrics.active();
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        parser.clearErrors();
+        byte[] content = readFully(in);
+        String key = key(parser, content);
+        Path file = directory.resolve(key + SUFFIX);
+
+        byte[] records = load(file);
+        if (records != null) {
+            List<Property> props = new ArrayList<Property>();
+            List<Valuation> vals = new ArrayList<Valuation>();
+            try {
+                // all objects first, so a bad entry hands out nothing
+                replay(records, meta, props, vals);
+            } catch (Exception e) {
+                // written by another version, or damaged despite the checksum
+                logger.warn("dropping cache entry " + file, e);
+                remove(file);
+                props = null;
+            }
+            if (props != null) {
+                hits.incrementAndGet();
+                long populateStart = metrics != null ? System.nanoTime() : 0;
+                for (int i = 0; i < props.size(); i++) {
+                    listener.valuationParsed(props.get(i), vals.get(i));
+                }
+                if (metrics != null) {
+                    long end = System.nanoTime();
+                    metrics.cacheHit(source, end - start, content.length, end - populateStart);
+                }
+                return;
+            }
+        }
+
+        misses.incrementAndGet();
+        Recorder recorder = new Recorder();
+        parser.parse(new ByteArrayInputStream(content), source, meta, listener, recorder);
+        if (parser.getErrors().isEmpty()) {
+            store(file, recorder.toByteArray());
+        }
+    }
+
+    private String key(ValXmlParser parser, byte[] content) {
+        MessageDigest digest;
+        try {
+            // not security relevant, just fast and wide enough
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(version.getBytes(UTF8));
+        digest.update(("|" + parser.fields + "|" + parser.maxObjects + "|").getBytes(UTF8));
+        digest.update(content);
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @return records of the entry, <code>null</code> if there is no valid one
+     */
+    private byte[] load(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("no cache entry");
+            }
+            byte[] records = new byte[in.readInt()];
+            long crc = in.readLong();
+            in.readFully(records);
+            if (crc != crc(records)) {
+                throw new IOException("checksum mismatch");
+            }
+
+            // least recently used is decided by the modification time
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return records;
+        } catch (IOException e) {
+            logger.warn("dropping cache entry " + file, e);
+            remove(file);
+            return null;
+        }
+    }
+
+    private void store(Path file, byte[] records) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.length + 16);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(records.length);
+            out.writeLong(crc(records));
+            out.write(records);
+            out.close();
+
+            Path tmp = Files.createTempFile(directory, null, ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            synchronized (this) {
+                size += bytes.size();
+                if (size > maxBytes) {
+                    evict();
+                }
+            }
+        } catch (IOException e) {
+            // the result is there, only the next run will be slower
+            logger.warn("could not write cache entry " + file, e);
+        }
+    }
+
+    /**
+     * deletes the least recently used entries down to 3/4 of the size bound
+     */
+    private void evict() throws IOException {
+        final List<Path> entries = new ArrayList<Path>();
+        final List<FileTime> times = new ArrayList<FileTime>();
+        long total = 0;
+        DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX);
+        try {
+            for (Path file : files) {
+                entries.add(file);
+                times.add(Files.getLastModifiedTime(file));
+                total += Files.size(file);
+            }
+        } finally {
+            files.close();
+        }
+
+        List<Integer> order = new ArrayList<Integer>();
+        for (int i = 0; i < entries.size(); i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return times.get(a).compareTo(times.get(b));
+            }
+        });
+
+        long target = maxBytes / 4 * 3;
+        for (int i = 0; i < order.size() && total > target; i++) {
+            Path file = entries.get(order.get(i));
+            long length = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                total -= length;
+            }
+        }
+        size = total;
+    }
+
+    private void remove(Path file) {
+        try {
+            long length = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                synchronized (this) {
+                    size -= length;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("could not delete cache entry " + file, e);
+        }
+    }
+
+    /**
+     * applies the records of an entry to new objects
+     */
+    private static void replay(byte[] records, Meta meta, List<Property> props, List<Valuation> vals)
+            throws IOException {
+        BiisField[] fields = BiisField.values();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(records));
+        ParseState state = new ParseState(meta);
+        TextDecoder text = new TextDecoder();
+
+        int tag;
+        while ((tag = in.read()) != -1) {
+            if (tag == START_OBJECT) {
+                state.startObject();
+            } else if (tag == END_OBJECT) {
+                props.add(state.prop);
+                vals.add(state.val);
+            } else {
+                byte[] value = new byte[readVarInt(in)];
+                in.readFully(value);
+                text.set(new String(value, UTF8));
+                fields[tag].apply(state, text);
+            }
+        }
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * @return the rest of <code>in</code>, which is not closed
+     */
+    static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * collects the values applied by {@link ValXmlParser}
+     */
+    static class Recorder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+
+        void startObject() {
+            bytes.write(START_OBJECT);
+        }
+
+        void endObject() {
+            bytes.write(END_OBJECT);
+        }
+
+        void field(BiisField field, TextDecoder text) {
+            byte[] value = text.string().getBytes(UTF8);
+            bytes.write(field.ordinal());
+            writeVarInt(value.length);
+            bytes.write(value, 0, value.length);
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        private void writeVarInt(int value) {
+            while (value >= 0x80) {
+                bytes.write(value & 0x7f | 0x80);
+                value >>>= 7;
+            }
+            bytes.write(value);
+        }
+    }
+}
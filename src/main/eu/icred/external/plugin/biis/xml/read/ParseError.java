@@ -0,0 +1,103 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+/**
+ * a problem found while importing a ValXML file
+ *
+ * <p>
+ * A value that can not be converted leaves its field unset, the import goes
+ * on; a file that is no well-formed xml ends its import with one error.
+ * </p>
+ */
+public class ParseError {
+    private final String source;
+    private final String path;
+    private final int line;
+    private final int column;
+    private final String value;
+    private final String message;
+
+    /**
+     * @param source
+     *            file (stream) name, <code>null</code> if unknown
+     * @param path
+     *            BIIS path of the element, e.g.
+     *            "ValXML/BIISValuationData/General/Address/Country"; <code>null</code> if
+     *            unknown
+     * @param line
+     *            line number, -1 if unknown
+     * @param column
+     *            column number, -1 if unknown
+     * @param value
+     *            raw element text, <code>null</code> if there is none
+     * @param message
+     *            cause
+     */
+    public ParseError(String source, String path, int line, int column, String value, String message) {
+        this.source = source;
+        this.path = path;
+        this.line = line;
+        this.column = column;
+        this.value = value;
+        this.message = message;
+    }
+
+    /**
+     * @return file (stream) name, <code>null</code> if unknown
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return BIIS path of the element, <code>null</code> if unknown
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return line number (of the end of the element for values), -1 if
+     *         unknown
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return column number, -1 if unknown
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return raw element text, <code>null</code> if there is none
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return cause
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(source == null ? "<stream>" : source);
+        if (line >= 0) {
+            sb.append(':').append(line).append(':').append(column);
+        }
+        if (path != null) {
+            sb.append(' ').append(path);
+        }
+        if (value != null) {
+            sb.append(" \"").append(value).append('"');
+        }
+        sb.append(": ").append(message);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.Currency;
+
+import eu.icred.model.datatype.enumeration.AreaMeasurement;
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+import eu.icred.model.node.group.Address;
+
+/**
+ * mutable target objects of one parse run - the {@link BiisField} rows write
+ * into these
+ */
+class ParseState {
+    Meta meta;
+
+    // document level, copied into every valuation
+    String expertId;
+    String expertName;
+
+    // current object (BIISValuationData)
+    Property prop;
+    Valuation val;
+    Address valAddress;
+
+    Currency mainCurrency;
+    AreaMeasurement mainAreaMeasurement;
+
+    ParseState(Meta meta) {
+        this.meta = meta;
+        startObject();
+    }
+
+    /**
+     * starts a new object - called when a BIISValuationData element opens
+     */
+    void startObject() {
+        prop = new Property();
+        val = new Valuation();
+        valAddress = new Address();
+        val.setAddress(valAddress);
+        val.setExpertId(expertId);
+        val.setExpertName(expertName);
+
+        mainCurrency = null;
+        mainAreaMeasurement = null;
+    }
+}
@@ -0,0 +1,89 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * node of the precompiled element trie; the reader walks it by local name as
+ * elements open and close instead of building xpath strings
+ */
+final class PathNode {
+    private final String name;
+    private final Map<String, PathNode> children = new HashMap<String, PathNode>();
+    private BiisField field = null;
+    private boolean object = false;
+
+    private PathNode(String name) {
+        this.name = name;
+    }
+
+    /**
+     * builds the trie for the given fields
+     * 
+     * @param fields
+     *            mapping rows
+     * @return root node (document level, above "ValXML")
+     */
+    static PathNode compile(Iterable<BiisField> fields) {
+        PathNode root = new PathNode("");
+        for (BiisField field : fields) {
+            PathNode node = root;
+            for (String part : field.getPath().split("/")) {
+                if (node.field != null) {
+                    throw new IllegalStateException("path " + field.getPath() + " runs through mapped field " + node.field);
+                }
+                PathNode child = node.children.get(part);
+                if (child == null) {
+                    child = new PathNode(part);
+                    node.children.put(part, child);
+                }
+                node = child;
+            }
+            if (node.field != null || !node.children.isEmpty()) {
+                throw new IllegalStateException("path " + field.getPath() + " mapped twice");
+            }
+            node.field = field;
+        }
+
+        PathNode node = root;
+        for (String part : BiisField.OBJECT_PATH.split("/")) {
+            node = node.getChild(part);
+            if (node == null) {
+                // no object level field mapped
+                return root;
+            }
+        }
+        node.object = true;
+
+        return root;
+    }
+
+    /**
+     * @param localName
+     *            local name of the opened element
+     * @return child node or <code>null</code> if the subtree is not mapped
+     */
+    PathNode getChild(String localName) {
+        return children.get(localName);
+    }
+
+    /**
+     * @return mapped field or <code>null</code> for inner nodes
+     */
+    BiisField getField() {
+        return field;
+    }
+
+    /**
+     * @return <code>true</code> if this node holds one object (see
+     *         {@link BiisField#OBJECT_PATH})
+     */
+    boolean isObject() {
+        return object;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,349 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.util.Currency;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+
+/**
+ * element text of the current field in a reusable char buffer, with decoders
+ * that work on the buffer instead of an intermediate String
+ *
+ * <p>
+ * Dates and currencies repeat a lot within a file, so the last decoded
+ * instances are cached (both types are immutable). Not thread-safe - one
+ * instance per parser.
+ * </p>
+ * <p>
+ * There is no BigDecimal decoder: none of the xs:decimal amounts of ValXML
+ * has a target in the model (see the end of {@link BiisField}).
+ * </p>
+ */
+final class TextDecoder {
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private static final int CACHE_SIZE = 64;
+
+    private char[] buf = new char[256];
+    private int start = 0;
+    private int length = 0;
+    // length before the decoders trimmed the text, which starts at 0
+    private int rawLength = 0;
+
+    // direct mapped caches, keyed by the text
+    private final char[][] dateKeys = new char[CACHE_SIZE][];
+    private final LocalDate[] dates = new LocalDate[CACHE_SIZE];
+    private char[] currencyKey = null;
+    private Currency currency = null;
+
+    /**
+     * reads the text of the current start element up to its end element
+     *
+     * @param xml
+     *            reader positioned on a start element
+     * @return <code>false</code> if the element is <code>xsi:nil</code>
+     *         (its content is skipped undecoded)
+     */
+    boolean read(XMLStreamReader xml) throws XMLStreamException {
+        boolean nil = isNil(xml);
+
+        start = 0;
+        length = 0;
+        while (true) {
+            int event = xml.next();
+            switch (event) {
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                if (!nil) {
+                    append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                }
+                break;
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                if (!nil) {
+                    char[] text = xml.getText().toCharArray();
+                    append(text, 0, text.length);
+                }
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                rawLength = length;
+                return !nil;
+            case XMLStreamConstants.START_ELEMENT:
+                throw new XMLStreamException("unexpected element " + xml.getLocalName() + " in text only element",
+                        xml.getLocation());
+            case XMLStreamConstants.END_DOCUMENT:
+                throw new XMLStreamException("unexpected end of document", xml.getLocation());
+            default:
+                // comment, processing instruction
+            }
+        }
+    }
+
+    /**
+     * sets the text directly, e.g. for values not read from xml
+     */
+    void set(String text) {
+        start = 0;
+        length = 0;
+        int len = text.length();
+        ensureCapacity(len);
+        text.getChars(0, len, buf, 0);
+        length = len;
+        rawLength = len;
+    }
+
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * @return the text, trimmed if a decoder has been called
+     */
+    String string() {
+        return new String(buf, start, length);
+    }
+
+    /**
+     * @return the text as read, also after a decoder trimmed it
+     */
+    String raw() {
+        return new String(buf, 0, rawLength);
+    }
+
+    @Override
+    public String toString() {
+        return string();
+    }
+
+    /**
+     * @return value of the code, see {@link CodeTable}
+     */
+    <V> V lookup(CodeTable<V> table) {
+        trim();
+        return table.get(buf, start, length);
+    }
+
+    Boolean toBoolean() {
+        trim();
+        if (equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * parses plain decimals exactly (value fits into 53 bit and at most 22
+     * fraction digits - the division of two exact doubles is correctly
+     * rounded), everything else through {@link Double#parseDouble(String)}
+     */
+    Double toDouble() {
+        trim();
+        int i = start;
+        int end = start + length;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < end; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (++digits > 15) {
+                    return Double.parseDouble(string());
+                }
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return Double.parseDouble(string());
+            }
+        }
+        if (digits == 0 || fraction > 22) {
+            return Double.parseDouble(string());
+        }
+
+        double value = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return date of "yyyy", "yyyy-MM" or "yyyy-MM-dd", other forms through
+     *         {@link LocalDate#parse(String)}
+     */
+    LocalDate toLocalDate() {
+        trim();
+        int slot = hash() & (CACHE_SIZE - 1);
+        char[] key = dateKeys[slot];
+        if (key != null && equals(key)) {
+            return dates[slot];
+        }
+
+        LocalDate date;
+        if (length == 10 && buf[start + 4] == '-' && buf[start + 7] == '-' && digits(0, 4) && digits(5, 2)
+                && digits(8, 2)) {
+            date = new LocalDate(number(0, 4), number(5, 2), number(8, 2));
+        } else if (length == 7 && buf[start + 4] == '-' && digits(0, 4) && digits(5, 2)) {
+            date = new LocalDate(number(0, 4), number(5, 2), 1);
+        } else if (length == 4 && digits(0, 4)) {
+            date = new LocalDate(number(0, 4), 1, 1);
+        } else {
+            // signed years, week dates, errors
+            date = LocalDate.parse(string());
+        }
+
+        dateKeys[slot] = copy();
+        dates[slot] = date;
+        return date;
+    }
+
+    /**
+     * @return date time of "yyyy-MM-ddTHH:mm:ss" with optional milliseconds,
+     *         other forms through {@link LocalDateTime#parse(String)}
+     */
+    LocalDateTime toLocalDateTime() {
+        trim();
+        if ((length == 19 || length == 23 && buf[start + 19] == '.' && digits(20, 3)) && buf[start + 4] == '-'
+                && buf[start + 7] == '-' && buf[start + 10] == 'T' && buf[start + 13] == ':' && buf[start + 16] == ':'
+                && digits(0, 4) && digits(5, 2) && digits(8, 2) && digits(11, 2) && digits(14, 2) && digits(17, 2)) {
+            return new LocalDateTime(number(0, 4), number(5, 2), number(8, 2), number(11, 2), number(14, 2),
+                    number(17, 2), length == 23 ? number(20, 3) : 0);
+        }
+        return LocalDateTime.parse(string());
+    }
+
+    Currency toCurrency() {
+        trim();
+        if (currencyKey == null || !equals(currencyKey)) {
+            currency = Currency.getInstance(string());
+            currencyKey = copy();
+        }
+        return currency;
+    }
+
+    /**
+     * @return <code>true</code> if there are only digits at
+     *         <code>offset</code>
+     */
+    private boolean digits(int offset, int digits) {
+        for (int i = start + offset; i < start + offset + digits; i++) {
+            if (buf[i] < '0' || buf[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * digits at <code>offset</code> as int, see {@link #digits(int, int)}
+     */
+    private int number(int offset, int digits) {
+        int value = 0;
+        for (int i = start + offset; i < start + offset + digits; i++) {
+            value = value * 10 + (buf[i] - '0');
+        }
+        return value;
+    }
+
+    private boolean equalsIgnoreCase(String value) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(buf[start + i]) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equals(char[] key) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buf[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash() {
+        int h = 0;
+        for (int i = start; i < start + length; i++) {
+            h = 31 * h + buf[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private char[] copy() {
+        char[] copy = new char[length];
+        System.arraycopy(buf, start, copy, 0, length);
+        return copy;
+    }
+
+    private void append(char[] chars, int from, int len) {
+        ensureCapacity(length + len);
+        System.arraycopy(chars, from, buf, length, len);
+        length += len;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            char[] newBuf = new char[Math.max(capacity, buf.length * 2)];
+            System.arraycopy(buf, 0, newBuf, 0, length);
+            buf = newBuf;
+        }
+    }
+
+    /**
+     * xml whitespace around typed values does not count (like
+     * {@link Double#parseDouble(String)} did)
+     */
+    private void trim() {
+        while (length > 0 && isWhitespace(buf[start])) {
+            start++;
+            length--;
+        }
+        while (length > 0 && isWhitespace(buf[start + length - 1])) {
+            length--;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static boolean isNil(XMLStreamReader xml) {
+        for (int i = 0; i < xml.getAttributeCount(); i++) {
+            if ("nil".equals(xml.getAttributeLocalName(i))
+                    && XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(xml.getAttributeNamespace(i))) {
+                String value = xml.getAttributeValue(i);
+                return "true".equals(value) || "1".equals(value);
+            }
+        }
+        return false;
+    }
+}
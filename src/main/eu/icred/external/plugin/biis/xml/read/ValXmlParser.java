@@ -0,0 +1,359 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.log4j.Logger;
+
+import eu.icred.model.node.Meta;
+
+/**
+ * parses one ValXML stream along the {@link BiisField} mapping; a stream may
+ * hold any number of BIISValuationData objects
+ * 
+ * <p>
+ * With a projection (subset of the fields) only the mapped subtrees are
+ * walked; once all wanted fields of an object are seen, the rest of it is
+ * skipped without decoding. While {@link ImportMetrics} counts the unmapped
+ * elements of a full import, the rest of an object is walked as well.
+ * </p>
+ * 
+ * <p>
+ * not thread-safe - use one instance per thread
+ * </p>
+ */
+class ValXmlParser {
+    private static Logger logger = Logger.getLogger(ValXmlParser.class);
+
+    private static final PathNode MAPPING = PathNode.compile(Arrays.asList(BiisField.values()));
+
+    // created on first use - not needed when results come from a cache
+    private XMLInputFactory factory = null;
+    private final Deque<PathNode> nodeStack = new ArrayDeque<PathNode>();
+    private final TextDecoder text = new TextDecoder();
+
+    private final PathNode mapping;
+    private final int objectFieldCount;
+    final Set<BiisField> fields;
+    final int maxObjects;
+
+    // object level fields seen in the current object
+    private final boolean[] seen = new boolean[BiisField.values().length];
+    private int seenCount = 0;
+
+    private XMLStreamReader xmlStream = null;
+
+    // diagnostics of the current stream; metrics is null unless enabled
+    private String source = null;
+    private List<ParseError> errors = new ArrayList<ParseError>();
+    private ImportMetrics metrics = null;
+    private long elements = 0;
+    private long convertNanos = 0;
+    private long populateNanos = 0;
+
+    /**
+     * parser for all fields
+     */
+    ValXmlParser() {
+        this(EnumSet.allOf(BiisField.class), 0);
+    }
+
+    /**
+     * @param fields
+     *            fields to read, all other elements are skipped undecoded
+     * @param maxObjects
+     *            stop after this many objects, 0 for all
+     */
+    ValXmlParser(Set<BiisField> fields, int maxObjects) {
+        this.mapping = fields.size() == BiisField.values().length ? MAPPING : PathNode.compile(fields);
+        int count = 0;
+        for (BiisField field : fields) {
+            if (field.isObjectField()) {
+                count++;
+            }
+        }
+        this.objectFieldCount = count;
+        this.fields = EnumSet.copyOf(fields.isEmpty() ? EnumSet.noneOf(BiisField.class) : fields);
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * @param in
+     *            ValXML stream (UTF-8)
+     * @param meta
+     *            target of the document level fields
+     * @param listener
+     *            receives each object when its element closes
+     */
+    void parse(InputStream in, Meta meta, ValuationListener listener) throws XMLStreamException {
+        parse(in, null, meta, listener, null);
+    }
+
+    /**
+     * @param source
+     *            name of the stream for {@link ParseError}s, may be
+     *            <code>null</code>
+     * @param recorder
+     *            receives the applied values for {@link ParseCache}, may be
+     *            <code>null</code>
+     * @throws XMLStreamException
+     *             if the stream is no well-formed xml (also recorded in
+     *             {@link #getErrors()})
+     */
+    void parse(InputStream in, String source, Meta meta, ValuationListener listener, ParseCache.Recorder recorder)
+            throws XMLStreamException {
+        this.source = source;
+        errors = new ArrayList<ParseError>();
+        elements = 0;
+        convertNanos = 0;
+        populateNanos = 0;
+
+        metrics = ImportMetrics.active();
+        long start = 0;
+        CountingInputStream counter = null;
+        if (metrics != null) {
+            start = System.nanoTime();
+            in = counter = new CountingInputStream(in);
+        }
+
+        if (factory == null) {
+            factory = XMLInputFactory.newInstance();
+        }
+        nodeStack.clear();
+
+        // the early object skip would hide the unmapped elements behind the
+        // last mapped field
+        boolean countUnmapped = metrics != null && mapping == MAPPING;
+        ParseState state = new ParseState(meta);
+        PathNode node = mapping;
+        // stack size inside the current object, 0 outside
+        int objectLevel = 0;
+        int objects = 0;
+        boolean done = false;
+        boolean failed = true;
+
+        try {
+            xmlStream = factory.createXMLStreamReader(in, "UTF-8");
+            while (!done && xmlStream.hasNext()) {
+                int event = xmlStream.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    elements++;
+                    PathNode child = node.getChild(xmlStream.getLocalName());
+                    if (child == null) {
+                        if (countUnmapped) {
+                            metrics.unmappedElement(xmlStream.getLocalName());
+                        }
+                        skipLevels(1);
+                    } else if (child.getField() != null) {
+                        BiisField field = child.getField();
+                        // consumes the end element, nil elements are not applied
+                        if (text.read(xmlStream)) {
+                            if (recorder != null) {
+                                recorder.field(field, text);
+                            }
+                            apply(field, state);
+                        }
+
+                        if (objectLevel > 0 && !countUnmapped && !seen[field.ordinal()]) {
+                            seen[field.ordinal()] = true;
+                            if (++seenCount == objectFieldCount) {
+                                // all wanted fields seen - skip the rest of the object
+                                int levels = nodeStack.size() - objectLevel + 1;
+                                skipLevels(levels);
+                                for (int i = 0; i < levels; i++) {
+                                    node = nodeStack.pop();
+                                }
+                                objectLevel = 0;
+                                emit(state, listener, recorder);
+                                done = maxObjects > 0 && ++objects >= maxObjects;
+                            }
+                        }
+                    } else {
+                        nodeStack.push(node);
+                        node = child;
+                        if (child.isObject()) {
+                            if (recorder != null) {
+                                recorder.startObject();
+                            }
+                            state.startObject();
+                            Arrays.fill(seen, false);
+                            seenCount = 0;
+                            objectLevel = nodeStack.size();
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    boolean object = node.isObject();
+                    node = nodeStack.pop();
+                    if (object) {
+                        objectLevel = 0;
+                        emit(state, listener, recorder);
+                        done = maxObjects > 0 && ++objects >= maxObjects;
+                    }
+                }
+            }
+            failed = false;
+        } catch (XMLStreamException e) {
+            Location location = e.getLocation();
+            errors.add(new ParseError(source, path(node), location == null ? -1 : location.getLineNumber(),
+                    location == null ? -1 : location.getColumnNumber(), null, e.getMessage()));
+            throw e;
+        } finally {
+            close();
+            if (metrics != null) {
+                metrics.fileParsed(source, System.nanoTime() - start, elements, counter.getCount(), convertNanos,
+                        populateNanos, failed);
+                metrics = null;
+            }
+        }
+    }
+
+    /**
+     * @return problems of the last parsed stream
+     */
+    List<ParseError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * forgets the problems of the last parsed stream, e.g. when the next
+     * result comes from a cache
+     */
+    void clearErrors() {
+        errors = new ArrayList<ParseError>();
+    }
+
+    /**
+     * closes the current xml stream (not the underlying input stream)
+     */
+    void close() {
+        if (xmlStream != null) {
+            try {
+                xmlStream.close();
+            } catch (XMLStreamException e) {
+                logger.debug("could not close xml stream", e);
+            }
+            xmlStream = null;
+        }
+    }
+
+    /**
+     * applies a value; a value that can not be converted is recorded as
+     * {@link ParseError}, the field stays unset
+     */
+    private void apply(BiisField field, ParseState state) {
+        long start = metrics == null ? 0 : System.nanoTime();
+        try {
+            field.apply(state, text);
+        } catch (RuntimeException e) {
+            Location location = xmlStream.getLocation();
+            errors.add(new ParseError(source, field.getPath(), location.getLineNumber(), location.getColumnNumber(),
+                    text.raw(), e.toString()));
+            if (metrics != null) {
+                metrics.fieldFailed(field);
+            }
+        }
+        if (metrics != null) {
+            convertNanos += System.nanoTime() - start;
+        }
+    }
+
+    private void emit(ParseState state, ValuationListener listener, ParseCache.Recorder recorder) {
+        if (recorder != null) {
+            recorder.endObject();
+        }
+        long start = metrics == null ? 0 : System.nanoTime();
+        listener.valuationParsed(state.prop, state.val);
+        if (metrics != null) {
+            populateNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return BIIS path of the open element <code>node</code>
+     */
+    private String path(PathNode node) {
+        StringBuilder path = new StringBuilder();
+        Iterator<PathNode> parents = nodeStack.descendingIterator();
+        while (parents.hasNext()) {
+            String name = parents.next().toString();
+            if (!name.isEmpty()) {
+                path.append(name).append('/');
+            }
+        }
+        path.append(node);
+        return path.toString();
+    }
+
+    /**
+     * skips up to and including the end of the <code>levels</code>-th open
+     * element, without decoding; 1 skips the current (unmapped) element
+     * including its subtree
+     */
+    private void skipLevels(int levels) throws XMLStreamException {
+        int depth = levels;
+        while (depth > 0) {
+            int event = xmlStream.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                elements++;
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * counts the bytes read, for {@link ImportMetrics}
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
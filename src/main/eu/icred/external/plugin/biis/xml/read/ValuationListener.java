@@ -0,0 +1,20 @@
+package eu.icred.external.plugin.biis.xml.read;
+
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+
+/**
+ * receives the objects of a ValXML stream as soon as they are parsed
+ */
+public interface ValuationListener {
+
+    /**
+     * called when a BIISValuationData element closes
+     * 
+     * @param prop
+     *            parsed property, without valuations
+     * @param val
+     *            parsed valuation of <code>prop</code>
+     */
+    void valuationParsed(Property prop, Valuation val);
+}
@@ -0,0 +1,467 @@
+package eu.icred.external.plugin.biis.xml.transcode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.log4j.Logger;
+
+import eu.icred.external.plugin.biis.xml.read.BiisImportConfiguration;
+import eu.icred.external.plugin.biis.xml.read.ParseError;
+import eu.icred.external.plugin.biis.xml.read.Reader;
+import eu.icred.external.plugin.biis.xml.read.ValuationListener;
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+import eu.icred.model.node.group.Address;
+
+/**
+ * converts BIIS-XML to a ZGIF archive without building a container
+ *
+ * <p>
+ * The objects are mapped exactly like {@link Reader} does and written to
+ * maindata.xml as soon as they are parsed, so memory use does not depend on
+ * the size of the input. Consecutive valuations of the same object
+ * (ObjNoOwner) share one PROPERTY element; valuations of an object that are
+ * spread over the file give one PROPERTY element each. meta.xml and the
+ * manifest follow maindata.xml because the meta data is known only after
+ * parsing.
+ * </p>
+ * <p>
+ * The input is a ValXML file or a ZIP of ValXML files; all files of a ZIP go
+ * into the same ZGIF. A ZIP entry that is no well-formed ValXML is skipped
+ * after its last complete object and reported by {@link #getErrors()}, like
+ * the values that could not be converted.
+ * </p>
+ *
+ * <pre>
+ * ZgifTranscoder &lt;biis-xml or zip&gt; &lt;zgif&gt;
+ * </pre>
+ */
+public class ZgifTranscoder {
+    private static Logger logger = Logger.getLogger(ZgifTranscoder.class);
+
+    public static final String MIMETYPE = "application/vnd.gif-ev.zgif";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String FORMAT = "XML";
+    private static final String LANGUAGE = "de_DE";
+
+    private static final String MAINDATA_ENTRY = "maindata.xml";
+    private static final String META_ENTRY = "meta.xml";
+    private static final String MANIFEST_ENTRY = "META-INF/manifest.xml";
+    private static final String[][] MANIFEST = { { "/", MIMETYPE }, { "mimetype", "text/plain" },
+            { "type", "text/plain" }, { META_ENTRY, "text/xml" }, { MAINDATA_ENTRY, "text/xml" },
+            { MANIFEST_ENTRY, "text/xml" } };
+
+    private final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
+    private ZipOutputStream zip = null;
+    private XMLStreamWriter xml = null;
+    // one reader (and parser) for all files of the input
+    private Reader reader = null;
+    private boolean open = false;
+    // ObjNoOwner of the open PROPERTY element
+    private String currentObject = null;
+    private Meta meta = null;
+    private int objects = 0;
+    private List<ParseError> errors = new ArrayList<ParseError>();
+
+    /**
+     * @return problems of the last transcode, see {@link Reader#getErrors()};
+     *         the source is the ZIP entry name for ZIP input
+     */
+    public List<ParseError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * transcodes a file
+     *
+     * @param biis
+     *            ValXML file or ZIP of ValXML files
+     * @param zgif
+     *            target, replaced if it exists; deleted if the input can not
+     *            be transcoded
+     * @return number of transcoded valuations
+     */
+    public int transcode(Path biis, Path zgif) throws IOException, XMLStreamException {
+        FileChannel in = FileChannel.open(biis, StandardOpenOption.READ);
+        try {
+            FileChannel out = FileChannel.open(zgif, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            boolean done = false;
+            try {
+                int objects = transcode(in, out);
+                done = true;
+                return objects;
+            } finally {
+                out.close();
+                if (!done) {
+                    Files.deleteIfExists(zgif);
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * transcodes a stream of ValXML (or a ZIP of ValXML files) into a stream
+     * of ZGIF
+     *
+     * @param biis
+     *            source, not closed
+     * @param zgif
+     *            target, not closed
+     * @return number of transcoded valuations
+     */
+    public int transcode(ReadableByteChannel biis, WritableByteChannel zgif) throws IOException, XMLStreamException {
+        InputStream in = new BufferedInputStream(Channels.newInputStream(biis), BUFFER_SIZE);
+        zip = new ZipOutputStream(new BufferedOutputStream(Channels.newOutputStream(zgif), BUFFER_SIZE));
+        objects = 0;
+        meta = null;
+        errors = new ArrayList<ParseError>();
+        reader = new Reader();
+        open = false;
+        currentObject = null;
+
+        try {
+            writeStored("mimetype", FORMAT);
+            writeStored("type", FORMAT);
+
+            zip.putNextEntry(new ZipEntry(MAINDATA_ENTRY));
+            xml = factory.createXMLStreamWriter(new EntryStream(zip), UTF8.name());
+            xml.writeStartDocument(UTF8.name(), "1.0");
+            xml.writeStartElement("data");
+            xml.writeStartElement("LIST_OF_PROPERTY");
+
+            if (isZip(in)) {
+                transcodeEntries(new ZipInputStream(in));
+            } else {
+                parse(in, null);
+            }
+
+            // closes the open PROPERTY element as well
+            xml.writeEndDocument();
+            xml.close();
+            zip.closeEntry();
+
+            writeMeta();
+            writeManifest();
+            zip.finish();
+            zip.flush();
+        } catch (TranscodeException e) {
+            // output failures end the transcode, also for ZIP input
+            throw e.getCause();
+        } finally {
+            xml = null;
+            zip = null;
+            reader = null;
+        }
+        return objects;
+    }
+
+    /**
+     * transcodes all files of a ZIP; broken entries are skipped, a ZIP that
+     * can not be read any further ends the input
+     */
+    private void transcodeEntries(ZipInputStream entries) throws XMLStreamException {
+        String name = null;
+        try {
+            ZipEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    name = entry.getName();
+                    logger.debug("transcoding " + name);
+                    try {
+                        parse(new EntryInputStream(entries), name);
+                    } catch (XMLStreamException e) {
+                        // recorded by the reader
+                        logger.warn("skipping the rest of " + name);
+                    }
+                    name = null;
+                }
+            }
+        } catch (IOException e) {
+            // the rest of a broken ZIP can not be read reliably
+            logger.warn("could not read the rest of the ZIP", e);
+            errors.add(new ParseError(name, null, -1, -1, null, e.toString()));
+        }
+    }
+
+    /**
+     * @param name
+     *            ZIP entry name, <code>null</code> for the input file
+     * @throws XMLStreamException
+     *             if the input is no well-formed xml; output failures are
+     *             thrown as {@link TranscodeException}
+     */
+    private void parse(InputStream in, String name) throws IOException, XMLStreamException {
+        BiisImportConfiguration config = new BiisImportConfiguration();
+        config.getStreams().put(Reader.PARAMETER_NAME, in);
+
+        try {
+            reader.stream(config, new ValuationListener() {
+                @Override
+                public void valuationParsed(Property prop, Valuation val) {
+                    try {
+                        writeValuation(prop, val);
+                    } catch (XMLStreamException e) {
+                        throw new TranscodeException(e);
+                    }
+                }
+            });
+        } finally {
+            reader.unload();
+            for (ParseError error : reader.getErrors()) {
+                if (name != null) {
+                    error = new ParseError(name, error.getPath(), error.getLine(), error.getColumn(),
+                            error.getValue(), error.getMessage());
+                }
+                logger.warn(error);
+                errors.add(error);
+            }
+        }
+
+        // the meta data of the first file describes the archive
+        if (meta == null) {
+            meta = reader.getContainer().getMeta();
+        }
+    }
+
+    private void writeValuation(Property prop, Valuation val) throws XMLStreamException {
+        String object = prop.getObjectIdSender();
+        if (!open || (object == null ? currentObject != null : !object.equals(currentObject))) {
+            if (open) {
+                // LIST_OF_VALUATION, PROPERTY
+                xml.writeEndElement();
+                xml.writeEndElement();
+            }
+            xml.writeStartElement("PROPERTY");
+            attribute("objectIdSender", prop.getObjectIdSender());
+            attribute("objectIdReceiver", prop.getObjectIdReceiver());
+            attribute("label", prop.getLabel());
+            xml.writeStartElement("LIST_OF_VALUATION");
+            open = true;
+            currentObject = object;
+        }
+
+        // children in the order of the GIF model: alphabetical, ADDRESS last
+        xml.writeStartElement("VALUATION");
+        attribute("objectIdSender", val.getObjectIdSender());
+        attribute("validFrom", val.getValidFrom());
+        element("changeDateForRemainingEconomicLife", val.getChangeDateForRemainingEconomicLife());
+        element("condition", val.getCondition());
+        element("constructionDate", val.getConstructionDate());
+        element("constructionPhase", val.getConstructionPhase());
+        element("currency", val.getCurrency());
+        element("exchangeRateDate", val.getExchangeRateDate());
+        element("expertId", val.getExpertId());
+        element("expertName", val.getExpertName());
+        element("floorDescription", val.getFloorDescription());
+        element("groundLease", val.getGroundLease());
+        element("groundLeaseRemarks", val.getGroundLeaseRemarks());
+        element("interiorQuality", val.getInteriorQuality());
+        element("maintenanceBacklog", val.getMaintenanceBacklog());
+        element("note", val.getNote());
+        element("owner", val.getOwner());
+        element("ownershipType", val.getOwnershipType());
+        element("purchaseDate", val.getPurchaseDate());
+        element("retailLocation", val.getRetailLocation());
+        element("saleDate", val.getSaleDate());
+        element("singleTenant", val.getSingleTenant());
+        element("useTypePrimary", val.getUseTypePrimary());
+        element("useTypePrimaryShare", val.getUseTypePrimaryShare());
+        element("useTypeSecondary", val.getUseTypeSecondary());
+        element("useTypeSecondaryShare", val.getUseTypeSecondaryShare());
+        element("valuationType1", val.getValuationType1());
+        element("valuationType2", val.getValuationType2());
+
+        Address address = val.getAddress();
+        if (address != null) {
+            xml.writeStartElement("ADDRESS");
+            element("label", address.getLabel());
+            element("street", address.getStreet());
+            element("zip", address.getZip());
+            element("city", address.getCity());
+            element("country", address.getCountry());
+            element("latitude", address.getLatitude());
+            element("longitude", address.getLongitude());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        objects++;
+    }
+
+    private void writeMeta() throws IOException, XMLStreamException {
+        zip.putNextEntry(new ZipEntry(META_ENTRY));
+        xml = factory.createXMLStreamWriter(new EntryStream(zip), UTF8.name());
+        xml.writeStartDocument(UTF8.name(), "1.0");
+        xml.writeStartElement("meta");
+        element("format", meta == null ? FORMAT : meta.getFormat());
+        element("version", meta == null ? null : meta.getVersion());
+        element("process", process());
+        element("language", LANGUAGE);
+        element("created", meta == null ? null : meta.getCreated());
+        element("publisher", "");
+        element("creator", meta == null ? null : meta.getCreator());
+        element("description", "");
+        xml.writeEndDocument();
+        xml.close();
+        zip.closeEntry();
+    }
+
+    private void writeManifest() throws IOException, XMLStreamException {
+        zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+        xml = factory.createXMLStreamWriter(new EntryStream(zip), UTF8.name());
+        xml.writeStartDocument(UTF8.name(), "1.0");
+        xml.writeStartElement("manifest");
+        for (String[] file : MANIFEST) {
+            xml.writeStartElement("file-entry");
+            xml.writeAttribute("path", file[0]);
+            xml.writeAttribute("mimetype", file[1]);
+            xml.writeEndElement();
+        }
+        xml.writeEndDocument();
+        xml.close();
+        zip.closeEntry();
+    }
+
+    /**
+     * writes an uncompressed entry, so it can be read at a fixed offset
+     */
+    private void writeStored(String name, String content) throws IOException {
+        byte[] bytes = content.getBytes(UTF8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    private void attribute(String name, Object value) throws XMLStreamException {
+        if (value != null) {
+            xml.writeAttribute(name, value.toString());
+        }
+    }
+
+    /**
+     * writes an element, <code>null</code> values are left out
+     */
+    private void element(String name, Object value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Enum<?> ? ((Enum<?>) value).name() : value.toString();
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    /**
+     * @return GIF process of the supported subset, e.g. "5.7" for S5_7
+     */
+    private static String process() {
+        return Reader.SUPPORTED_SUBSETS[0].name().substring(1).replace('_', '.');
+    }
+
+    private static boolean isZip(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            return in.read() == 'P' && in.read() == 'K' && in.read() == 3 && in.read() == 4;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * entry data of a zip; closing does not close the zip
+     */
+    private static class EntryStream extends FilterOutputStream {
+        EntryStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * entry data of a zip; closing does not close the zip
+     */
+    private static class EntryInputStream extends BufferedInputStream {
+        EntryInputStream(InputStream in) {
+            super(in, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() {
+            // next entry
+        }
+    }
+
+    /**
+     * carries a write failure out of the listener
+     */
+    private static class TranscodeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TranscodeException(XMLStreamException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized XMLStreamException getCause() {
+            return (XMLStreamException) super.getCause();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, XMLStreamException {
+        if (args.length != 2) {
+            System.err.println("usage: ZgifTranscoder <biis-xml or zip> <zgif>");
+            System.exit(1);
+        }
+
+        long start = System.currentTimeMillis();
+        int objects = new ZgifTranscoder().transcode(Paths.get(args[0]), Paths.get(args[1]));
+        logger.info(objects + " valuations transcoded in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
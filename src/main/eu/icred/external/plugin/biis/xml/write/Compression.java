@@ -0,0 +1,21 @@
+package eu.icred.external.plugin.biis.xml.write;
+
+/**
+ * compression of the written ValXML
+ */
+public enum Compression {
+    /**
+     * plain xml
+     */
+    NONE,
+
+    /**
+     * gzip stream
+     */
+    GZIP,
+
+    /**
+     * ZIP archive with one entry ({@link Writer#ZIP_ENTRY_NAME})
+     */
+    ZIP
+}
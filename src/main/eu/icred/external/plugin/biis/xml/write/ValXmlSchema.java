@@ -0,0 +1,159 @@
+package eu.icred.external.plugin.biis.xml.write;
+
+/**
+ * all ValXML 1.0 leaf elements in schema order, as in
+ * testfiles/biis-example.xml
+ *
+ * <p>
+ * {@link ValXmlWriter} writes every element of this list; those without a
+ * {@link eu.icred.external.plugin.biis.xml.read.BiisField} row are written as
+ * <code>xsi:nil</code>.
+ * </p>
+ */
+final class ValXmlSchema {
+    static final String[] ELEMENTS = {
+            "ValXML/Date",
+            "ValXML/CompletionDate",
+            "ValXML/DataSupplier/Short",
+            "ValXML/DataSupplier/Name",
+            "ValXML/DataSupplier/TypeOfDataSupplier",
+            "ValXML/BIISValuationData/General/ArealUnit",
+            "ValXML/BIISValuationData/General/Address/Street",
+            "ValXML/BIISValuationData/General/Address/PostCode",
+            "ValXML/BIISValuationData/General/Address/Town",
+            "ValXML/BIISValuationData/General/Address/Country",
+            "ValXML/BIISValuationData/General/Address/Text",
+            "ValXML/BIISValuationData/General/Owner",
+            "ValXML/BIISValuationData/General/ObjNoOwner",
+            "ValXML/BIISValuationData/General/ObjKoWGS84Longitude",
+            "ValXML/BIISValuationData/General/ObjKoWGS84Latitude",
+            "ValXML/BIISValuationData/ValuationResults/RebaseType1",
+            "ValXML/BIISValuationData/ValuationResults/RebaseType2",
+            "ValXML/BIISValuationData/ValuationResults/RebaseObjAdditionalInformation",
+            "ValXML/BIISValuationData/ValuationResults/DateOfAppraisal",
+            "ValXML/BIISValuationData/ValuationResults/QualityDateOfAppraisal",
+            "ValXML/BIISValuationData/ValuationResults/Currency",
+            "ValXML/BIISValuationData/ValuationResults/ExchangeRate1EUR",
+            "ValXML/BIISValuationData/ValuationResults/DateExchangeRate",
+            "ValXML/BIISValuationData/ValuationResults/MainTypeOfUse",
+            "ValXML/BIISValuationData/ValuationResults/ShareMainTypeOfUse",
+            "ValXML/BIISValuationData/ValuationResults/AncillaryTypeOfUse",
+            "ValXML/BIISValuationData/ValuationResults/ShareAncillaryTypeOfUse",
+            "ValXML/BIISValuationData/ValuationResults/TypeOfOwnership",
+            "ValXML/BIISValuationData/ValuationResults/SingleTenant",
+            "ValXML/BIISValuationData/ValuationResults/PurchasePrice",
+            "ValXML/BIISValuationData/ValuationResults/DateOfPurchase",
+            "ValXML/BIISValuationData/ValuationResults/PriceOfSale",
+            "ValXML/BIISValuationData/ValuationResults/DateOfSale",
+            "ValXML/BIISValuationData/ValuationResults/LocationQuality",
+            "ValXML/BIISValuationData/ValuationResults/StructuralCondition",
+            "ValXML/BIISValuationData/ValuationResults/FitOutQuality",
+            "ValXML/BIISValuationData/ValuationResults/StateOfCompletion",
+            "ValXML/BIISValuationData/ValuationResults/MaintenanceBacklog",
+            "ValXML/BIISValuationData/ValuationResults/Floors",
+            "ValXML/BIISValuationData/ValuationResults/NormalTotalEconomicLife",
+            "ValXML/BIISValuationData/ValuationResults/RemainingEconomicLife",
+            "ValXML/BIISValuationData/ValuationResults/OriginalYearOfConstruction",
+            "ValXML/BIISValuationData/ValuationResults/CalculatedYearOfConstruction",
+            "ValXML/BIISValuationData/ValuationResults/DateOfChangeForRemainingEconomicLife",
+            "ValXML/BIISValuationData/ValuationResults/LandSize",
+            "ValXML/BIISValuationData/ValuationResults/FloorToAreaRatio",
+            "ValXML/BIISValuationData/ValuationResults/SiteCoverageRatio",
+            "ValXML/BIISValuationData/ValuationResults/GrossFloorSpaceOverground",
+            "ValXML/BIISValuationData/ValuationResults/GrossFloorSpaceBelowGround",
+            "ValXML/BIISValuationData/ValuationResults/TotalGrossFloorSpace",
+            "ValXML/BIISValuationData/ValuationResults/TotalRentableArea",
+            "ValXML/BIISValuationData/ValuationResults/RunningCosts",
+            "ValXML/BIISValuationData/ValuationResults/ManagementCosts",
+            "ValXML/BIISValuationData/ValuationResults/MaintenanceExpenses",
+            "ValXML/BIISValuationData/ValuationResults/RentAllowance",
+            "ValXML/BIISValuationData/ValuationResults/OtherOperatingExpenses",
+            "ValXML/BIISValuationData/ValuationResults/CapitalizationRate",
+            "ValXML/BIISValuationData/ValuationResults/ValueByIncomeApproachWithoutPremiumsDiscounts",
+            "ValXML/BIISValuationData/ValuationResults/DiscountsPremiums",
+            "ValXML/BIISValuationData/ValuationResults/DeductionForVacancy",
+            "ValXML/BIISValuationData/ValuationResults/DeductionConstructionWorks",
+            "ValXML/BIISValuationData/ValuationResults/OthersDiscountsPremiums",
+            "ValXML/BIISValuationData/ValuationResults/ValueByIncomeApproach",
+            "ValXML/BIISValuationData/ValuationResults/CostApproach",
+            "ValXML/BIISValuationData/ValuationResults/LandValue",
+            "ValXML/BIISValuationData/ValuationResults/MarketValue",
+            "ValXML/BIISValuationData/ValuationResults/GroundLease",
+            "ValXML/BIISValuationData/ValuationResults/RemainingLifeOfGroundLease",
+            "ValXML/BIISValuationData/ValuationResults/GroundRent",
+            "ValXML/BIISValuationData/ValuationResults/GroundLeaseRemarks",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOfficeLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOfficeContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOfficeEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOfficeVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOfficeEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationRetailLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationRetailContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationRetailEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationRetailVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationRetailEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationStorageLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationStorageContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationStorageEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationStorageVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationStorageEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationArchiveLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationArchiveContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationArchiveEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationArchiveVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationArchiveEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationGastroLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationGastroContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationGastroEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationGastroVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationGastroEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationResidentialLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationResidentialContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationResidentialEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationResidentialVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationResidentialEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationHotelLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationHotelContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationHotelEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationHotelVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationHotelEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationLeisureLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationLeisureContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationLeisureEstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationLeisureVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationLeisureEstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationIndoorparkingLetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationIndoorparkingContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationIndoorparkingEstimatedAnnualRentForLetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationIndoorparkingVacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationIndoorparkingEstimatedAnnualRentForVacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOutsideparkingLetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOutsideparkingContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOutsideparkingEstimatedAnnualRentForLetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOutsideparkingVacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationOutsideparkingEstimatedAnnualRentForVacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea1LetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea1ContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea1EstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea1VacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea1EstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea2LetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea2ContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea2EstimatedAnnualRentForLetArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea2VacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscArea2EstimatedAnnualRentForVacantArea",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers1LetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers1ContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers1EstimatedAnnualRentForLetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers1VacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers1EstimatedAnnualRentForVacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers2LetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers2ContractualAnnualRent",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers2EstimatedAnnualRentForLetNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers2VacantNumbers",
+            "ValXML/BIISValuationData/ValuationResults/RentalSituationMiscnumbers2EstimatedAnnualRentForVacantNumbers"
+    };
+
+    private ValXmlSchema() {
+    }
+}
@@ -0,0 +1,215 @@
+package eu.icred.external.plugin.biis.xml.write;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.log4j.Logger;
+
+import eu.icred.external.plugin.biis.xml.read.BiisField;
+import eu.icred.external.plugin.biis.xml.read.ValuationListener;
+import eu.icred.model.node.Meta;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+
+/**
+ * writes ValXML 1.0 object by object along the {@link BiisField} mapping
+ * 
+ * <p>
+ * All elements of the schema are written, those without a mapping (or
+ * without a value) as <code>xsi:nil</code>. The document level elements are
+ * written with the first object; ValXML has one DataSupplier per file, so
+ * objects of other suppliers (expert id and name) are logged. Nothing is
+ * buffered besides the stream writer, so any number of objects can be
+ * written; as {@link ValuationListener} it can be fed straight from the
+ * reader.
+ * </p>
+ */
+public class ValXmlWriter implements ValuationListener {
+    private static Logger logger = Logger.getLogger(ValXmlWriter.class);
+
+    public static final String NAMESPACE = "http://www.biis.info/fileadmin/BIISValXML/Schema/ValXML1.0";
+    private static final String PREFIX = "ns1";
+    private static final String XSI_PREFIX = "xsi";
+
+    // schema elements by level, with their field (null for unmapped ones)
+    private static final String[][] DOCUMENT_PATHS;
+    private static final BiisField[] DOCUMENT_FIELDS;
+    private static final String[][] OBJECT_PATHS;
+    private static final BiisField[] OBJECT_FIELDS;
+
+    static {
+        Map<String, BiisField> byPath = new HashMap<String, BiisField>();
+        for (BiisField field : BiisField.values()) {
+            byPath.put(field.getPath(), field);
+        }
+
+        List<String[]> documentPaths = new ArrayList<String[]>();
+        List<BiisField> documentFields = new ArrayList<BiisField>();
+        List<String[]> objectPaths = new ArrayList<String[]>();
+        List<BiisField> objectFields = new ArrayList<BiisField>();
+        for (String element : ValXmlSchema.ELEMENTS) {
+            BiisField field = byPath.remove(element);
+            if (element.startsWith(BiisField.OBJECT_PATH + "/")) {
+                objectPaths.add(element.split("/"));
+                objectFields.add(field);
+            } else {
+                documentPaths.add(element.split("/"));
+                documentFields.add(field);
+            }
+        }
+        if (!byPath.isEmpty()) {
+            throw new IllegalStateException("fields missing in schema order: " + byPath.values());
+        }
+
+        DOCUMENT_PATHS = documentPaths.toArray(new String[documentPaths.size()][]);
+        DOCUMENT_FIELDS = documentFields.toArray(new BiisField[documentFields.size()]);
+        OBJECT_PATHS = objectPaths.toArray(new String[objectPaths.size()][]);
+        OBJECT_FIELDS = objectFields.toArray(new BiisField[objectFields.size()]);
+    }
+
+    private static final String[] OBJECT_PATH = BiisField.OBJECT_PATH.split("/");
+
+    private final XMLStreamWriter xml;
+    private final Meta meta;
+
+    // currently open elements
+    private final String[] open = new String[16];
+    private int depth = 0;
+
+    private boolean started = false;
+
+    // DataSupplier of the header; ValXML has one per file
+    private String supplier = null;
+    private final Set<String> warnedSuppliers = new HashSet<String>();
+
+    /**
+     * @param out
+     *            target (UTF-8), not closed by this writer
+     * @param meta
+     *            container meta
+     */
+    public ValXmlWriter(OutputStream out, Meta meta) throws XMLStreamException {
+        this.xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+        this.meta = meta;
+    }
+
+    /**
+     * writes one object
+     * 
+     * @param prop
+     *            property
+     * @param val
+     *            valuation of <code>prop</code>
+     */
+    public void write(Property prop, Valuation val) throws XMLStreamException {
+        if (!started) {
+            writeHeader(prop, val);
+        }
+
+        String objectSupplier = supplier(prop, val);
+        if (!supplier.equals(objectSupplier) && warnedSuppliers.add(objectSupplier)) {
+            logger.warn("object " + prop.getObjectIdSender() + " has data supplier " + objectSupplier
+                    + ", the file is written for " + supplier + " only");
+        }
+
+        moveTo(OBJECT_PATH, OBJECT_PATH.length);
+        for (int i = 0; i < OBJECT_FIELDS.length; i++) {
+            writeElement(OBJECT_PATHS[i], OBJECT_FIELDS[i], prop, val);
+        }
+        moveTo(OBJECT_PATH, 1);
+    }
+
+    @Override
+    public void valuationParsed(Property prop, Valuation val) {
+        try {
+            write(prop, val);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * ends the document and flushes the stream writer
+     */
+    public void close() throws XMLStreamException {
+        if (!started) {
+            writeHeader(new Property(), new Valuation());
+        }
+        moveTo(OBJECT_PATH, 0);
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+    }
+
+    private void writeHeader(Property prop, Valuation val) throws XMLStreamException {
+        started = true;
+
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement(PREFIX, OBJECT_PATH[0], NAMESPACE);
+        xml.writeNamespace(XSI_PREFIX, XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
+        xml.writeNamespace(PREFIX, NAMESPACE);
+        open[depth++] = OBJECT_PATH[0];
+
+        supplier = supplier(prop, val);
+        for (int i = 0; i < DOCUMENT_FIELDS.length; i++) {
+            writeElement(DOCUMENT_PATHS[i], DOCUMENT_FIELDS[i], prop, val);
+        }
+        moveTo(OBJECT_PATH, 1);
+    }
+
+    /**
+     * writes one leaf element, <code>xsi:nil</code> if it has no value or no
+     * field
+     */
+    private void writeElement(String[] path, BiisField field, Property prop, Valuation val)
+            throws XMLStreamException {
+        moveTo(path, path.length - 1);
+
+        String value = field == null ? null : field.format(meta, prop, val);
+        xml.writeStartElement(PREFIX, path[path.length - 1], NAMESPACE);
+        if (value == null) {
+            xml.writeAttribute(XSI_PREFIX, XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "nil", "true");
+        } else {
+            xml.writeCharacters(value);
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * @return data supplier (expert id and name) of a valuation
+     */
+    private String supplier(Property prop, Valuation val) {
+        return BiisField.DATA_SUPPLIER_SHORT.format(meta, prop, val) + "/"
+                + BiisField.DATA_SUPPLIER_NAME.format(meta, prop, val);
+    }
+
+    /**
+     * closes and opens elements until exactly the first <code>length</code>
+     * elements of <code>path</code> are open
+     */
+    private void moveTo(String[] path, int length) throws XMLStreamException {
+        int common = 0;
+        while (common < depth && common < length && open[common].equals(path[common])) {
+            common++;
+        }
+        while (depth > common) {
+            xml.writeEndElement();
+            depth--;
+        }
+        while (depth < length) {
+            xml.writeStartElement(PREFIX, path[depth], NAMESPACE);
+            open[depth] = path[depth];
+            depth++;
+        }
+    }
+}
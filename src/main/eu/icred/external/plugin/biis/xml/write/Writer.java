@@ -0,0 +1,133 @@
+package eu.icred.external.plugin.biis.xml.write;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.log4j.Logger;
+
+import eu.icred.external.plugin.biis.xml.read.Reader;
+import eu.icred.model.datatype.enumeration.Subset;
+import eu.icred.model.node.Container;
+import eu.icred.model.node.entity.Property;
+import eu.icred.model.node.entity.Valuation;
+import eu.icred.plugin.PluginComponent;
+import eu.icred.plugin.worker.WorkerConfiguration;
+import eu.icred.plugin.worker.output.ExportWorkerConfiguration;
+import eu.icred.plugin.worker.output.IExportWorker;
+
+public class Writer implements IExportWorker {
+    private static Logger logger = Logger.getLogger(Writer.class);
+
+    public static final String ZIP_ENTRY_NAME = "biis.xml";
+    private static String PARAMETER_NAME = "biis-file";
+
+    private Container container = null;
+    private Compression compression = Compression.NONE;
+
+    /**
+     * @param compression
+     *            compression of the output, default {@link Compression#NONE}
+     */
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    public List<Subset> getSupportedSubsets() {
+        return Arrays.asList(Reader.SUPPORTED_SUBSETS);
+    }
+
+    @Override
+    public void setContainer(Container container) {
+        this.container = container;
+    }
+
+    @Override
+    public void load(WorkerConfiguration config) {
+        throw new RuntimeException("not allowed");
+    }
+
+    @Override
+    public void unload() {
+    }
+
+    /**
+     * writes the container to the stream "biis-file"
+     *
+     * @throws IllegalStateException
+     *             if the output could not be written
+     */
+    @Override
+    public void load(ExportWorkerConfiguration config) {
+        OutputStream target = config.getStreams().get(PARAMETER_NAME);
+
+        try {
+            OutputStream out;
+            ZipOutputStream zip = null;
+            GZIPOutputStream gzip = null;
+            switch (compression) {
+            case GZIP:
+                out = gzip = new GZIPOutputStream(target, 1 << 16);
+                break;
+            case ZIP:
+                out = zip = new ZipOutputStream(new BufferedOutputStream(target, 1 << 16));
+                zip.putNextEntry(new ZipEntry(ZIP_ENTRY_NAME));
+                break;
+            default:
+                out = new BufferedOutputStream(target, 1 << 16);
+            }
+
+            ValXmlWriter writer = new ValXmlWriter(out, container.getMeta());
+            for (Property prop : container.getMaindata().getProperties().values()) {
+                if (prop.getValuations() == null) {
+                    continue;
+                }
+                for (Valuation val : prop.getValuations().values()) {
+                    writer.write(prop, val);
+                }
+            }
+            writer.close();
+
+            if (zip != null) {
+                zip.closeEntry();
+                zip.finish();
+            } else if (gzip != null) {
+                gzip.finish();
+            }
+            out.flush();
+
+        } catch (XMLStreamException e) {
+            // the export is incomplete, the caller has to know
+            logger.error("could not write BIIS-XML", e);
+            throw new IllegalStateException("could not write BIIS-XML", e);
+        } catch (IOException e) {
+            logger.error("could not write BIIS-XML", e);
+            throw new IllegalStateException("could not write BIIS-XML", e);
+        }
+    }
+
+    @Override
+    public ExportWorkerConfiguration getRequiredConfigurationArguments() {
+        return new ExportWorkerConfiguration() {
+            {
+                SortedMap<String, OutputStream> streams = getStreams();
+                streams.put(PARAMETER_NAME, null);
+            }
+        };
+    }
+
+    @Override
+    public PluginComponent<ExportWorkerConfiguration> getConfigGui() {
+        // null => DefaultConfigGui
+        return null;
+    }
+}